@@ -7,6 +7,7 @@
 
 -- Clear existing data (in correct order due to foreign keys)
 DELETE FROM student_courses;
+DELETE FROM account_directory;
 DELETE FROM course;
 DELETE FROM student;
 DELETE FROM teacher;
@@ -50,11 +51,21 @@ INSERT INTO student_courses (student_id, course_id) VALUES
 (3, 5);  -- Alice enrolled in History of Art
 
 -- =====================================================
--- Update sequences to avoid ID conflicts
+-- Register logins in the account directory
 -- =====================================================
-SELECT setval('teacher_seq', 100);
-SELECT setval('student_seq', 100);
-SELECT setval('course_seq', 100);
+INSERT INTO account_directory (email, role, account_id, password_hash)
+SELECT email, 'STUDENT', id, password FROM student;
+
+INSERT INTO account_directory (email, role, account_id, password_hash)
+SELECT email, 'TEACHER', id, password FROM teacher;
+
+-- =====================================================
+-- Move sequences past the explicit ids above
+-- (the next id block starts right after the highest id)
+-- =====================================================
+SELECT setval('teacher_seq', (SELECT max(id) FROM teacher));
+SELECT setval('student_seq', (SELECT max(id) FROM student));
+SELECT setval('course_seq', (SELECT max(id) FROM course));
 
 -- =====================================================
 -- Test Credentials:
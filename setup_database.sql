@@ -1,3 +1,6 @@
+-- Superseded by the Flyway migrations in src/main/resources/db/migration, which the
+-- application runs at startup. Kept for reference only; do not run against a migrated database.
+
 -- Create tables manually
 CREATE TABLE IF NOT EXISTS student (
     id BIGSERIAL PRIMARY KEY,
@@ -0,0 +1,69 @@
+package com.example.student_teacher.benchmark;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import com.example.student_teacher.StudentTeacherApplication;
+import com.example.student_teacher.service.CourseCatalog;
+import com.example.student_teacher.service.StudentSearchService;
+
+/**
+ * The full application on an in-memory H2 database, started once per trial and
+ * filled with {@link #studentCount} generated students. The data is written with
+ * plain JDBC after startup, so the in-memory catalog and search index are reloaded
+ * once it is in place.
+ */
+@State(Scope.Benchmark)
+public class ApplicationState {
+
+    @Param({"1000", "100000", "1000000"})
+    public int studentCount;
+
+    private ConfigurableApplicationContext context;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = new SpringApplicationBuilder(StudentTeacherApplication.class)
+                .profiles("bench")
+                .properties(properties())
+                .run();
+        String passwordHash = bean(PasswordEncoder.class).encode("password");
+        BenchmarkData.generate(bean(JdbcTemplate.class), studentCount, passwordHash);
+        bean(CourseCatalog.class).reload();
+        bean(StudentSearchService.class).reload();
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    /**
+     * Extra {@code key=value} properties for states that start the application differently.
+     */
+    protected String[] properties() {
+        return new String[0];
+    }
+
+    public int port() {
+        return context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+    }
+
+    public <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    public long randomStudentId() {
+        return ThreadLocalRandom.current().nextLong(1, studentCount + 1);
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.student_teacher.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.student_teacher.entity.Course;
+import com.example.student_teacher.repository.StudentRepository;
+import com.example.student_teacher.service.CourseService;
+
+/**
+ * Deletes a course with {@value #ENROLLED_STUDENTS} enrolled students. The course is
+ * created before each invocation and is not part of the measured time.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class CourseDeletionBenchmark {
+
+    private static final int ENROLLED_STUDENTS = 50;
+    private static final String TEACHER_EMAIL = BenchmarkData.teacherEmail(1);
+
+    private ApplicationState app;
+    private CourseService courseService;
+    private StudentRepository studentRepo;
+    private Long courseId;
+
+    @Setup(Level.Trial)
+    public void setUp(ApplicationState app) {
+        this.app = app;
+        this.courseService = app.bean(CourseService.class);
+        this.studentRepo = app.bean(StudentRepository.class);
+    }
+
+    @Setup(Level.Invocation)
+    public void createCourse() {
+        Course course = new Course();
+        course.setTitle("Benchmark course");
+        course.setCredit(3);
+        courseId = courseService.addCourse(TEACHER_EMAIL, course).get().getId();
+        for (int i = 0; i < ENROLLED_STUDENTS; i++) {
+            studentRepo.insertEnrollment(app.randomStudentId(), courseId);
+        }
+    }
+
+    @Benchmark
+    public boolean deleteCourse() {
+        return courseService.deleteCourse(courseId, TEACHER_EMAIL);
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.student_teacher.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.student_teacher.dto.CourseSummary;
+import com.example.student_teacher.service.CourseSearchIndex;
+
+/**
+ * Typeahead queries against a {@link CourseSearchIndex} of {@code courseCount}
+ * generated courses. Runs without the application, and samples each call so the
+ * report includes p99 and p99.9 latencies.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class CourseSearchBenchmark {
+
+    private static final String[] SUBJECTS = {"Java", "Python", "Databases", "Algorithms", "Networks",
+            "Statistics", "Calculus", "Physics", "Chemistry", "Biology", "History", "Economics",
+            "Philosophy", "Literature", "Compilers", "Robotics"};
+    private static final String[] LEVELS = {"Introduction to", "Advanced", "Applied", "Topics in",
+            "Foundations of", "Seminar in"};
+    private static final String[] SURNAMES = {"Smith", "Jones", "Garcia", "Nguyen", "Müller", "Rossi",
+            "Kowalski", "Tanaka", "Okafor", "Larsen"};
+    private static final String[] QUERIES = {"j", "ja", "jav", "java", "intro pyth", "adv data",
+            "statistics smith", "compilers 12", "rob", "foundations of calc", "garcia"};
+
+    @Param({"100000"})
+    public int courseCount;
+
+    private CourseSearchIndex index;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        List<CourseSummary> courses = new ArrayList<>(courseCount);
+        for (long id = 1; id <= courseCount; id++) {
+            String title = LEVELS[random.nextInt(LEVELS.length)] + " " + SUBJECTS[random.nextInt(SUBJECTS.length)]
+                    + " " + random.nextInt(1, 500);
+            String teacher = "Dr. " + SURNAMES[random.nextInt(SURNAMES.length)] + " " + random.nextInt(1, 2000);
+            courses.add(new CourseSummary(id, title, 1 + random.nextInt(4), teacher));
+        }
+        index = CourseSearchIndex.of(courses);
+    }
+
+    @Benchmark
+    public List<CourseSummary> typeahead() {
+        next = (next + 1) % QUERIES.length;
+        return index.search(QUERIES[next], 10);
+    }
+}
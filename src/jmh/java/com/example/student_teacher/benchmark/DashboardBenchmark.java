@@ -0,0 +1,48 @@
+package com.example.student_teacher.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.ui.ExtendedModelMap;
+
+import com.example.student_teacher.controller.WebController;
+
+/**
+ * Builds the student dashboard model for a random student. Template rendering is
+ * not included.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class DashboardBenchmark {
+
+    private ApplicationState app;
+    private WebController webController;
+
+    @Setup
+    public void setUp(ApplicationState app) {
+        this.app = app;
+        this.webController = app.bean(WebController.class);
+    }
+
+    @Benchmark
+    public ExtendedModelMap studentDashboard() {
+        String email = BenchmarkData.studentEmail(app.randomStudentId());
+        ExtendedModelMap model = new ExtendedModelMap();
+        webController.studentDashboard(new TestingAuthenticationToken(email, null, "ROLE_STUDENT"), model);
+        return model;
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.student_teacher.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.student_teacher.service.EnrollmentService;
+import com.example.student_teacher.service.EnrollmentService.Outcome;
+
+/**
+ * One enroll followed by one drop for a random student, so the data set stays the
+ * same size across iterations.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class EnrollmentBenchmark {
+
+    private ApplicationState app;
+    private EnrollmentService enrollmentService;
+
+    @Setup
+    public void setUp(ApplicationState app) {
+        this.app = app;
+        this.enrollmentService = app.bean(EnrollmentService.class);
+    }
+
+    @Benchmark
+    public boolean enrollAndDrop() {
+        long studentId = app.randomStudentId();
+        long courseId = BenchmarkData.notEnrolledCourse(studentId);
+        return enrollmentService.enroll(studentId, courseId) == Outcome.ENROLLED
+                & enrollmentService.drop(studentId, courseId);
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.student_teacher.benchmark;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpRequest.BodyPublishers;
+import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Load test: {@value #CONCURRENT_STUDENTS} logged-in students each enroll in a course
+ * and drop it again over HTTP, all at once. Run with {@code virtualThreads} true and
+ * false to compare request throughput on virtual and platform threads:
+ * <pre>
+ * mvn -Pjmh -DskipTests verify -Djmh.args="EnrollmentLoadBenchmark -p studentCount=1000"
+ * </pre>
+ * Each student has its own session and course, so requests never race on one row.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class EnrollmentLoadBenchmark {
+
+    static final int CONCURRENT_STUDENTS = 1000;
+
+    private ExecutorService clientExecutor;
+    private HttpClient client;
+    private URI base;
+    private final List<String> sessionCookies = new ArrayList<>();
+
+    @Setup
+    public void setUp(ServerState app) throws IOException, InterruptedException {
+        clientExecutor = Executors.newVirtualThreadPerTaskExecutor();
+        client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(clientExecutor)
+                .build();
+        base = URI.create("http://localhost:" + app.port());
+        for (long studentId = 1; studentId <= CONCURRENT_STUDENTS; studentId++) {
+            sessionCookies.add(login(BenchmarkData.studentEmail(studentId)));
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        clientExecutor.shutdownNow();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CONCURRENT_STUDENTS)
+    public int enrollAndDropBurst() {
+        List<CompletableFuture<HttpResponse<Void>>> responses = new ArrayList<>(CONCURRENT_STUDENTS);
+        for (int i = 0; i < CONCURRENT_STUDENTS; i++) {
+            String cookie = sessionCookies.get(i);
+            URI course = base.resolve("/student/courses/" + BenchmarkData.notEnrolledCourse(i + 1));
+            HttpRequest enroll = HttpRequest.newBuilder(course).header("Cookie", cookie)
+                    .POST(BodyPublishers.noBody()).build();
+            HttpRequest drop = HttpRequest.newBuilder(course).header("Cookie", cookie)
+                    .DELETE().build();
+            responses.add(client.sendAsync(enroll, BodyHandlers.discarding())
+                    .thenCompose(enrolled -> client.sendAsync(drop, BodyHandlers.discarding())));
+        }
+        int succeeded = 0;
+        for (CompletableFuture<HttpResponse<Void>> response : responses) {
+            if (response.join().statusCode() == 200) {
+                succeeded++;
+            }
+        }
+        return succeeded;
+    }
+
+    private String login(String email) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(base.resolve("/login"))
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(BodyPublishers.ofString("username=" + URLEncoder.encode(email, StandardCharsets.UTF_8)
+                        + "&password=password"))
+                .build();
+        HttpResponse<Void> response = client.send(request, BodyHandlers.discarding());
+        String setCookie = response.headers().firstValue("Set-Cookie")
+                .orElseThrow(() -> new IllegalStateException("Login failed for " + email));
+        return setCookie.substring(0, setCookie.indexOf(';'));
+    }
+}
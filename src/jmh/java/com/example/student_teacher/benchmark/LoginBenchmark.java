@@ -0,0 +1,58 @@
+package com.example.student_teacher.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import com.example.student_teacher.security.CustomUserDetailsService;
+import com.example.student_teacher.security.PrincipalCache;
+
+/**
+ * {@link CustomUserDetailsService#loadUserByUsername} with and without a principal
+ * cache hit.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class LoginBenchmark {
+
+    // Small enough to stay inside the principal cache
+    private static final int HOT_ACCOUNTS = 1000;
+
+    private ApplicationState app;
+    private CustomUserDetailsService userDetailsService;
+    private PrincipalCache principalCache;
+
+    @Setup
+    public void setUp(ApplicationState app) {
+        this.app = app;
+        this.userDetailsService = app.bean(CustomUserDetailsService.class);
+        this.principalCache = app.bean(PrincipalCache.class);
+    }
+
+    @Benchmark
+    public UserDetails cached() {
+        long studentId = 1 + app.randomStudentId() % Math.min(HOT_ACCOUNTS, app.studentCount);
+        return userDetailsService.loadUserByUsername(BenchmarkData.studentEmail(studentId));
+    }
+
+    @Benchmark
+    public UserDetails uncached() {
+        String email = BenchmarkData.studentEmail(app.randomStudentId());
+        principalCache.invalidate(email);
+        return userDetailsService.loadUserByUsername(email);
+    }
+}
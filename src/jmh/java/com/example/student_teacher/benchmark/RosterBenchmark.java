@@ -0,0 +1,50 @@
+package com.example.student_teacher.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.student_teacher.controller.TeacherController;
+
+import tools.jackson.databind.ObjectMapper;
+
+/**
+ * One default-sized page of {@code GET /teacher/students}, starting at a random
+ * cursor and serialized to JSON the way the message converter does it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class RosterBenchmark {
+
+    private static final int PAGE_SIZE = 50;
+
+    private ApplicationState app;
+    private TeacherController teacherController;
+    private ObjectMapper objectMapper;
+
+    @Setup
+    public void setUp(ApplicationState app) {
+        this.app = app;
+        this.teacherController = app.bean(TeacherController.class);
+        this.objectMapper = app.bean(ObjectMapper.class);
+    }
+
+    @Benchmark
+    public byte[] studentPage() {
+        long after = Math.max(0, app.randomStudentId() - PAGE_SIZE);
+        return objectMapper.writeValueAsBytes(teacherController.getAllStudents(after, PAGE_SIZE));
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.student_teacher.benchmark;
+
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * {@link ApplicationState} served over HTTP on platform or virtual threads.
+ */
+@State(Scope.Benchmark)
+public class ServerState extends ApplicationState {
+
+    @Param({"false", "true"})
+    public boolean virtualThreads;
+
+    @Override
+    protected String[] properties() {
+        return new String[] {"spring.threads.virtual.enabled=" + virtualThreads};
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.student_teacher.config;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.hibernate.autoconfigure.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.example.student_teacher.entity.PooledSequenceGenerator;
+import com.example.student_teacher.metrics.StatementCounter;
+
+@Configuration
+public class JpaConfig {
+
+    /**
+     * Passes {@code app.jpa.id-allocation-size} to the entity id generators.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer idAllocationSizeCustomizer(
+            @Value("${app.jpa.id-allocation-size:" + PooledSequenceGenerator.DEFAULT_ALLOCATION_SIZE + "}") int allocationSize) {
+        return properties -> properties.put(PooledSequenceGenerator.ALLOCATION_SIZE_SETTING, allocationSize);
+    }
+
+    /**
+     * Lets {@link StatementCounter} see every statement Hibernate prepares.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer statementCounterCustomizer() {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, new StatementCounter());
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.student_teacher.config;
+
+import java.time.Duration;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import com.example.student_teacher.web.RequestStatementsFilter;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Request-level metrics on top of what Spring Boot binds on its own.
+ * <p>
+ * Boot already publishes {@code http.server.requests} (tagged per controller method
+ * by {@code HandlerObservationConvention}), the Hibernate statistics through
+ * {@code hibernate-micrometer} and the Hikari pool gauges. This adds the number of
+ * SQL statements each request ran, and warns about requests over the budgets set
+ * under {@code app.diagnostics}.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    FilterRegistrationBean<RequestStatementsFilter> requestStatements(MeterRegistry meterRegistry,
+            @Value("${app.diagnostics.statement-budget:20}") int statementBudget,
+            @Value("${app.diagnostics.latency-budget:1s}") Duration latencyBudget,
+            @Value("${app.diagnostics.repeat-threshold:5}") int repeatThreshold,
+            @Value("${app.diagnostics.ignored-handlers:}") Set<String> ignoredHandlers) {
+        FilterRegistrationBean<RequestStatementsFilter> registration = new FilterRegistrationBean<>(
+                new RequestStatementsFilter(meterRegistry, statementBudget, latencyBudget, repeatThreshold,
+                        ignoredHandlers));
+        // Behind the concurrency guard, ahead of Spring Security so principal lookups count
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 20);
+        return registration;
+    }
+}
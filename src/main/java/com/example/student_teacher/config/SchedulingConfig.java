@@ -0,0 +1,19 @@
+package com.example.student_teacher.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Runs the {@code @Scheduled} background jobs (outbox redelivery, enrollment count
+ * reconciliation, search index rebuilds) on Spring Boot's shared task scheduler,
+ * which is sized by {@code spring.task.scheduling.*} and stopped with the context.
+ * <p>
+ * {@code app.scheduling.enabled=false} turns all of them off, e.g. in tests that
+ * call the jobs themselves.
+ */
+@Configuration
+@EnableScheduling
+@ConditionalOnProperty(name = "app.scheduling.enabled", havingValue = "true", matchIfMissing = true)
+public class SchedulingConfig {
+}
@@ -0,0 +1,85 @@
+package com.example.student_teacher.config;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.thread.Threading;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+
+import com.example.student_teacher.web.ConcurrencyGuardFilter;
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Connection pool sizing and the request guard used with virtual threads.
+ * <p>
+ * Virtual threads are opt-in through {@code spring.threads.virtual.enabled}; Spring
+ * Boot then runs Tomcat requests and the application task executor on them. A virtual
+ * thread blocked on JDBC or on the password hashing pool only parks, so the limit
+ * on concurrent work becomes the connection pool. In that mode the pool's maximum
+ * size comes from {@code app.datasource.pool-size}, unless
+ * {@code spring.datasource.hikari.*} sizes it explicitly, and
+ * {@link ConcurrencyGuardFilter} holds requests beyond that size on a semaphore.
+ * With platform threads Hikari keeps its own defaults.
+ */
+@Configuration
+public class ThreadingConfig {
+
+    /**
+     * Pool size when {@code app.datasource.pool-size} is 0: two connections per CPU
+     * plus one, the usual starting point for a database on the same kind of host.
+     */
+    static int defaultPoolSize() {
+        return Runtime.getRuntime().availableProcessors() * 2 + 1;
+    }
+
+    @Bean
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    static BeanPostProcessor hikariPoolSizing(Environment environment) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof HikariDataSource dataSource && !sizedExplicitly(environment)) {
+                    int configured = environment.getProperty("app.datasource.pool-size", Integer.class, 0);
+                    // Only the maximum: Hikari's minimum idle follows it unless set, and idle connections still time out
+                    dataSource.setMaximumPoolSize(configured > 0 ? configured : defaultPoolSize());
+                }
+                return bean;
+            }
+        };
+    }
+
+    private static boolean sizedExplicitly(Environment environment) {
+        return environment.containsProperty("spring.datasource.hikari.maximum-pool-size")
+                || environment.containsProperty("spring.datasource.hikari.minimum-idle");
+    }
+
+    @Bean
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    FilterRegistrationBean<ConcurrencyGuardFilter> concurrencyGuard(HikariDataSource dataSource,
+            MeterRegistry meterRegistry,
+            @Value("${app.concurrency.max-requests:0}") int maxRequests,
+            @Value("${app.concurrency.max-wait:10s}") Duration maxWait) {
+        // Every request may hold a connection for its whole duration (open-in-view)
+        int permits = maxRequests > 0 ? maxRequests : dataSource.getMaximumPoolSize();
+        ConcurrencyGuardFilter guard = new ConcurrencyGuardFilter(permits, maxWait);
+        Gauge.builder("http.concurrency.guard.waiting", guard, ConcurrencyGuardFilter::getQueueLength)
+                .description("Requests parked waiting for a permit")
+                .register(meterRegistry);
+
+        FilterRegistrationBean<ConcurrencyGuardFilter> registration = new FilterRegistrationBean<>(guard);
+        // Static resources and health checks never wait; login and the API pages do
+        registration.addUrlPatterns("/login", "/dashboard", "/student/*", "/teacher/*", "/courses/*");
+        // Ahead of Spring Security, whose login check also needs a connection
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+}
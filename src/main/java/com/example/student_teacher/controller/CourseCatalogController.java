@@ -0,0 +1,65 @@
+package com.example.student_teacher.controller;
+
+import java.util.List;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+import com.example.student_teacher.dto.CatalogSnapshot;
+import com.example.student_teacher.dto.CourseSeats;
+import com.example.student_teacher.dto.CourseSummary;
+import com.example.student_teacher.repository.CourseRepository;
+import com.example.student_teacher.service.CourseCatalog;
+
+@RestController
+@RequestMapping("/courses")
+public class CourseCatalogController {
+
+    private final CourseCatalog courseCatalog;
+    private final CourseRepository courseRepo;
+
+    public CourseCatalogController(CourseCatalog courseCatalog, CourseRepository courseRepo) {
+        this.courseCatalog = courseCatalog;
+        this.courseRepo = courseRepo;
+    }
+
+    /**
+     * Returns every course with the catalog generation as ETag. A client that sends
+     * the same tag back in If-None-Match gets 304 Not Modified and no body.
+     */
+    @GetMapping("/catalog")
+    public ResponseEntity<CatalogSnapshot> getCatalog(WebRequest request) {
+        CatalogSnapshot catalog = courseCatalog.snapshot();
+        String etag = courseCatalog.etag(catalog);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .body(catalog);
+    }
+
+    /**
+     * Capacity and enrolled count of every course, read from the database on each
+     * request. Served apart from the catalog so enrollments do not change its ETag.
+     */
+    @GetMapping("/catalog/seats")
+    public List<CourseSeats> getSeats() {
+        return courseRepo.findAllSeats();
+    }
+
+    /**
+     * Ranked course search over titles and teacher names. Every word of {@code q}
+     * must match a whole word or the start of one, so the endpoint also serves typeahead.
+     */
+    @GetMapping("/search")
+    public List<CourseSummary> search(@RequestParam String q, @RequestParam(defaultValue = "10") int limit) {
+        return courseCatalog.search(q, limit);
+    }
+}
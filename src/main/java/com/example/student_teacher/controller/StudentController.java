@@ -2,37 +2,40 @@ package com.example.student_teacher.controller;
 
 
 
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import java.security.Principal;
-import com.example.student_teacher.repository.*;
-import com.example.student_teacher.entity.*;
+import java.util.concurrent.CompletableFuture;
+import com.example.student_teacher.service.EnrollmentAdmission;
+import com.example.student_teacher.service.EnrollmentService;
 
 @RestController
 @RequestMapping("/student")
 public class StudentController {
 
-    private final StudentRepository studentRepo;
-    private final CourseRepository courseRepo;
+    private final EnrollmentService enrollmentService;
+    private final EnrollmentAdmission enrollmentAdmission;
 
-    public StudentController(StudentRepository studentRepo, CourseRepository courseRepo) {
-        this.studentRepo = studentRepo;
-        this.courseRepo = courseRepo;
+    public StudentController(EnrollmentService enrollmentService, EnrollmentAdmission enrollmentAdmission) {
+        this.enrollmentService = enrollmentService;
+        this.enrollmentAdmission = enrollmentAdmission;
     }
 
     @PostMapping("/courses/{courseId}")
-    public String takeCourse(@PathVariable Long courseId, Principal principal) {
-        Student student = studentRepo.findByEmail(principal.getName()).get();
-        Course course = courseRepo.findById(courseId).get();
-        student.getCourses().add(course);
-        studentRepo.save(student);
-        return "Course taken";
+    public CompletableFuture<ResponseEntity<String>> takeCourse(@PathVariable Long courseId, Principal principal) {
+        Long studentId = enrollmentService.resolveStudentId(principal).get();
+        return enrollmentAdmission.submit(studentId, courseId).thenApply(outcome -> switch (outcome) {
+            case ENROLLED, ALREADY_ENROLLED -> ResponseEntity.ok("Course taken");
+            case COURSE_FULL -> ResponseEntity.status(HttpStatus.CONFLICT).body("Course is full");
+            case NOT_FOUND -> ResponseEntity.status(HttpStatus.NOT_FOUND).body("Course or student not found");
+        });
     }
 
     @DeleteMapping("/courses/{courseId}")
     public String removeCourse(@PathVariable Long courseId, Principal principal) {
-        Student student = studentRepo.findByEmail(principal.getName()).get();
-        student.getCourses().removeIf(c -> c.getId().equals(courseId));
-        studentRepo.save(student);
+        Long studentId = enrollmentService.resolveStudentId(principal).get();
+        enrollmentService.drop(studentId, courseId);
         return "Course removed";
     }
 }
@@ -1,78 +1,188 @@
 package com.example.student_teacher.controller;
 
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.security.Principal;
-import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.example.student_teacher.dto.ImportReport;
+import com.example.student_teacher.dto.StudentPage;
+import com.example.student_teacher.dto.StudentSearchPage;
 import com.example.student_teacher.entity.Course;
+import com.example.student_teacher.entity.Role;
 import com.example.student_teacher.entity.Student;
-import com.example.student_teacher.entity.Teacher;
-import com.example.student_teacher.repository.CourseRepository;
+import com.example.student_teacher.repository.AccountDirectoryRepository;
 import com.example.student_teacher.repository.StudentRepository;
-import com.example.student_teacher.repository.TeacherRepository;
+import com.example.student_teacher.security.PasswordHashingService;
+import com.example.student_teacher.security.PrincipalCache;
+import com.example.student_teacher.service.CourseService;
+import com.example.student_teacher.service.EnrollmentService;
+import com.example.student_teacher.service.RosterService;
+import com.example.student_teacher.service.StudentImportService;
+import com.example.student_teacher.service.StudentSearchService;
 
 @RestController
 @RequestMapping("/teacher")
 public class TeacherController {
 
-    private final CourseRepository courseRepo;
-    private final TeacherRepository teacherRepo;
     private final StudentRepository studentRepo;
-    private final PasswordEncoder passwordEncoder;
+    private final AccountDirectoryRepository accountDirectory;
+    private final PasswordHashingService passwordHashing;
+    private final PrincipalCache principalCache;
+    private final RosterService rosterService;
+    private final CourseService courseService;
+    private final StudentImportService studentImportService;
+    private final StudentSearchService studentSearchService;
+    private final EnrollmentService enrollmentService;
+    private final Executor taskExecutor;
 
-    public TeacherController(CourseRepository courseRepo, TeacherRepository teacherRepo,
-            StudentRepository studentRepo, PasswordEncoder passwordEncoder) {
-        this.courseRepo = courseRepo;
-        this.teacherRepo = teacherRepo;
+    public TeacherController(StudentRepository studentRepo, AccountDirectoryRepository accountDirectory,
+            PasswordHashingService passwordHashing,
+            PrincipalCache principalCache, RosterService rosterService, CourseService courseService,
+            StudentImportService studentImportService, StudentSearchService studentSearchService,
+            EnrollmentService enrollmentService, @Qualifier("applicationTaskExecutor") Executor taskExecutor) {
         this.studentRepo = studentRepo;
-        this.passwordEncoder = passwordEncoder;
+        this.accountDirectory = accountDirectory;
+        this.passwordHashing = passwordHashing;
+        this.principalCache = principalCache;
+        this.rosterService = rosterService;
+        this.courseService = courseService;
+        this.studentImportService = studentImportService;
+        this.studentSearchService = studentSearchService;
+        this.enrollmentService = enrollmentService;
+        this.taskExecutor = taskExecutor;
     }
 
     @PostMapping("/courses")
     public Course addCourse(@RequestBody Course course, Principal principal) {
-        Teacher teacher = teacherRepo.findByEmail(principal.getName()).get();
-        course.setTeacher(teacher);
-        return courseRepo.save(course);
+        return courseService.addCourse(principal.getName(), course).get();
+    }
+
+    /**
+     * Keyset page of the students enrolled in one of the teacher's courses.
+     */
+    @GetMapping("/courses/{courseId}/students")
+    public ResponseEntity<?> getCourseStudents(@PathVariable Long courseId,
+            @RequestParam(defaultValue = "0") long after, @RequestParam(defaultValue = "50") int size,
+            Principal principal) {
+        if (!rosterService.teachesCourse(principal.getName(), courseId)) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Course not found");
+        }
+        return ResponseEntity.ok(rosterService.pageCourseStudents(courseId, after, size));
+    }
+
+    /**
+     * The whole roster of one of the teacher's courses as a CSV download, streamed
+     * from the database without loading it into memory.
+     */
+    @GetMapping(value = "/courses/{courseId}/students", params = "format=csv")
+    public ResponseEntity<StreamingResponseBody> exportCourseStudents(@PathVariable Long courseId,
+            Principal principal) {
+        if (!rosterService.teachesCourse(principal.getName(), courseId)) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok()
+                .contentType(new MediaType("text", "csv", StandardCharsets.UTF_8))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("course-" + courseId + "-students.csv").build().toString())
+                .body(out -> rosterService.writeCourseStudentsCsv(courseId, out));
     }
 
     @GetMapping("/students")
-    public List<Student> getAllStudents() {
-        return studentRepo.findAll();
+    public StudentPage getAllStudents(@RequestParam(defaultValue = "0") long after,
+            @RequestParam(defaultValue = "50") int size) {
+        return rosterService.pageStudents(after, size);
+    }
+
+    @GetMapping(value = "/students", params = "format=ndjson")
+    public ResponseEntity<StreamingResponseBody> streamAllStudents() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(rosterService::writeStudentsNdjson);
     }
 
+    /**
+     * Ranked search over student names and emails, with prefix and typo-tolerant
+     * matching, optionally limited to the students enrolled in one of the teacher's courses.
+     */
+    @GetMapping("/students/search")
+    public ResponseEntity<?> searchStudents(@RequestParam(defaultValue = "") String q,
+            @RequestParam(required = false) Long courseId,
+            @RequestParam(defaultValue = "0") int offset,
+            @RequestParam(defaultValue = "50") int size,
+            Principal principal) {
+        if (courseId != null && !rosterService.teachesCourse(principal.getName(), courseId)) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Course not found");
+        }
+        return ResponseEntity.ok(studentSearchService.search(q, courseId, offset, size));
+    }
+
+    /**
+     * Creates a student. The password is hashed on the hashing pool and the student
+     * saved on the application task executor, so the request thread is released
+     * while the hash is computed and hashing threads never wait for a connection.
+     */
     @PostMapping("/students")
-    public ResponseEntity<?> addStudent(@RequestBody Student student) {
-        try {
-            // Check if email already exists
-            if (studentRepo.findByEmail(student.getEmail()).isPresent()) {
-                return ResponseEntity.badRequest().body("Email already exists");
-            }
+    public CompletableFuture<ResponseEntity<?>> addStudent(@RequestBody Student student) {
+        // The email must be free across students and teachers, or the student could never log in
+        if (accountDirectory.findByEmail(student.getEmail()).isPresent()) {
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().body("Email already exists"));
+        }
 
-            // Encode password and save
-            student.setPassword(passwordEncoder.encode(student.getPassword()));
-            Student savedStudent = studentRepo.save(student);
-            return ResponseEntity.ok(savedStudent);
-        } catch (Exception e) {
-            return ResponseEntity.badRequest().body("Error adding student: " + e.getMessage());
+        // Encode password and save
+        return passwordHashing.encodeAsync(student.getPassword())
+                .<ResponseEntity<?>>thenApplyAsync(hash -> {
+                    student.setPassword(hash);
+                    Student savedStudent = studentRepo.save(student);
+                    principalCache.invalidate(savedStudent.getEmail());
+                    return ResponseEntity.ok(savedStudent);
+                }, taskExecutor)
+                .exceptionally(e -> {
+                    Throwable cause = e.getCause() != null ? e.getCause() : e;
+                    return ResponseEntity.badRequest().body("Error adding student: " + cause.getMessage());
+                });
+    }
+
+    /**
+     * Bulk-creates students from a CSV (with a name,email,password header) or NDJSON
+     * upload. The body is read as a stream; the report lists the outcome of every row.
+     */
+    @PostMapping(value = "/students/import", consumes = { "text/csv", MediaType.APPLICATION_NDJSON_VALUE })
+    public ImportReport importStudents(@RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+            InputStream body) {
+        Charset charset = contentType.getCharset() != null ? contentType.getCharset() : StandardCharsets.UTF_8;
+        if (MediaType.APPLICATION_NDJSON.isCompatibleWith(contentType)) {
+            return studentImportService.importNdjson(body, charset);
         }
+        return studentImportService.importCsv(body, charset);
     }
 
     @DeleteMapping("/students/{id}")
     public ResponseEntity<?> deleteStudent(@PathVariable Long id) {
         try {
-            if (!studentRepo.existsById(id)) {
+            if (!enrollmentService.deleteStudent(id)) {
                 return ResponseEntity.badRequest().body("Student not found");
             }
-            studentRepo.deleteById(id);
+            principalCache.invalidate(Role.STUDENT, id);
             return ResponseEntity.ok("Student deleted successfully");
         } catch (Exception e) {
             return ResponseEntity.badRequest().body("Error deleting student: " + e.getMessage());
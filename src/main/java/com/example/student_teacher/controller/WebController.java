@@ -1,6 +1,7 @@
 package com.example.student_teacher.controller;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
@@ -11,24 +12,38 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 
+import com.example.student_teacher.dto.CourseSummary;
+import com.example.student_teacher.dto.EnrolledCourseIds;
+import com.example.student_teacher.dto.StudentEnrollmentRow;
+import com.example.student_teacher.dto.TeacherDashboard;
 import com.example.student_teacher.entity.Course;
-import com.example.student_teacher.entity.Student;
-import com.example.student_teacher.entity.Teacher;
 import com.example.student_teacher.repository.CourseRepository;
 import com.example.student_teacher.repository.StudentRepository;
-import com.example.student_teacher.repository.TeacherRepository;
+import com.example.student_teacher.service.CourseCatalog;
+import com.example.student_teacher.service.CourseService;
+import com.example.student_teacher.service.EnrollmentAdmission;
+import com.example.student_teacher.service.EnrollmentService;
+import com.example.student_teacher.service.EnrollmentService.Outcome;
 
 @Controller
 public class WebController {
 
     private final StudentRepository studentRepo;
-    private final TeacherRepository teacherRepo;
     private final CourseRepository courseRepo;
-
-    public WebController(StudentRepository studentRepo, TeacherRepository teacherRepo, CourseRepository courseRepo) {
+    private final CourseService courseService;
+    private final EnrollmentService enrollmentService;
+    private final EnrollmentAdmission enrollmentAdmission;
+    private final CourseCatalog courseCatalog;
+
+    public WebController(StudentRepository studentRepo, CourseRepository courseRepo,
+            CourseService courseService, EnrollmentService enrollmentService, EnrollmentAdmission enrollmentAdmission,
+            CourseCatalog courseCatalog) {
         this.studentRepo = studentRepo;
-        this.teacherRepo = teacherRepo;
         this.courseRepo = courseRepo;
+        this.courseService = courseService;
+        this.enrollmentService = enrollmentService;
+        this.enrollmentAdmission = enrollmentAdmission;
+        this.courseCatalog = courseCatalog;
     }
 
     @GetMapping("/login")
@@ -48,77 +63,67 @@ public class WebController {
 
     @GetMapping("/student/dashboard")
     public String studentDashboard(Authentication auth, Model model) {
-        Student student = studentRepo.findByEmail(auth.getName()).orElse(null);
-        List<Course> allCourses = courseRepo.findAll();
+        // One query for the student's name and course ids; the catalog comes from memory
+        List<StudentEnrollmentRow> enrollments = studentRepo.findEnrollmentRowsByEmail(auth.getName());
+        List<CourseSummary> allCourses = courseCatalog.snapshot().courses();
+
+        EnrolledCourseIds enrolledIds = EnrolledCourseIds.of(
+                enrollments.stream().map(StudentEnrollmentRow::courseId).toList());
+        List<CourseSummary> myCourses = allCourses.stream()
+                .filter(course -> enrolledIds.contains(course.id()))
+                .toList();
 
-        model.addAttribute("student", student);
-        model.addAttribute("myCourses", student != null ? student.getCourses() : List.of());
+        model.addAttribute("studentName", enrollments.isEmpty() ? null : enrollments.get(0).studentName());
+        model.addAttribute("myCourses", myCourses);
         model.addAttribute("allCourses", allCourses);
+        model.addAttribute("enrolledIds", enrolledIds);
         return "student-dashboard";
     }
 
     @GetMapping("/teacher/dashboard")
     public String teacherDashboard(Authentication auth, Model model) {
-        Teacher teacher = teacherRepo.findByEmail(auth.getName()).orElse(null);
-        List<Course> myCourses = courseRepo.findByTeacher(teacher);
-        int totalCredits = myCourses.stream().mapToInt(Course::getCredit).sum();
+        // One aggregate query for the name, totals and per-course enrollment counts; no entities are loaded
+        TeacherDashboard dashboard = TeacherDashboard.of(courseRepo.findTeacherDashboardRows(auth.getName()));
 
-        model.addAttribute("teacher", teacher);
-        model.addAttribute("myCourses", myCourses);
-        model.addAttribute("totalCredits", totalCredits);
+        model.addAttribute("teacherName", dashboard.teacherName());
+        model.addAttribute("myCourses", dashboard.courses());
+        model.addAttribute("courseCount", dashboard.courseCount());
+        model.addAttribute("totalCredits", dashboard.totalCredits());
         return "teacher-dashboard";
     }
 
     @PostMapping("/teacher/courses/add")
-    public String addCourse(@RequestParam String title, @RequestParam int credit, Authentication auth) {
-        Teacher teacher = teacherRepo.findByEmail(auth.getName()).orElse(null);
-        if (teacher != null) {
-            Course course = new Course();
-            course.setTitle(title);
-            course.setCredit(credit);
-            course.setTeacher(teacher);
-            courseRepo.save(course);
-        }
+    public String addCourse(@RequestParam String title, @RequestParam int credit,
+            @RequestParam(required = false) Integer capacity, Authentication auth) {
+        Course course = new Course();
+        course.setTitle(title);
+        course.setCredit(credit);
+        course.setCapacity(capacity);
+        courseService.addCourse(auth.getName(), course);
         return "redirect:/teacher/dashboard";
     }
 
     @PostMapping("/student/courses/enroll/{courseId}")
-    public String enrollCourse(@PathVariable Long courseId, Authentication auth) {
-        Student student = studentRepo.findByEmail(auth.getName()).orElse(null);
-        Course course = courseRepo.findById(courseId).orElse(null);
-        if (student != null && course != null) {
-            student.getCourses().add(course);
-            studentRepo.save(student);
-        }
-        return "redirect:/student/dashboard";
+    public CompletableFuture<String> enrollCourse(@PathVariable Long courseId, Authentication auth) {
+        // Queued behind the admission layer; the request thread is released while it waits
+        return enrollmentService.resolveStudentId(auth)
+                .map(studentId -> enrollmentAdmission.submit(studentId, courseId))
+                .orElseGet(() -> CompletableFuture.completedFuture(null))
+                .thenApply(outcome -> outcome == Outcome.COURSE_FULL
+                        ? "redirect:/student/dashboard?full" : "redirect:/student/dashboard");
     }
 
     @PostMapping("/student/courses/drop/{courseId}")
     public String dropCourse(@PathVariable Long courseId, Authentication auth) {
-        Student student = studentRepo.findByEmail(auth.getName()).orElse(null);
-        if (student != null) {
-            student.getCourses().removeIf(c -> c.getId().equals(courseId));
-            studentRepo.save(student);
-        }
+        enrollmentService.resolveStudentId(auth)
+                .ifPresent(studentId -> enrollmentService.drop(studentId, courseId));
         return "redirect:/student/dashboard";
     }
 
     @PostMapping("/teacher/courses/delete/{courseId}")
     public String deleteCourse(@PathVariable Long courseId, Authentication auth) {
-        Teacher teacher = teacherRepo.findByEmail(auth.getName()).orElse(null);
-        Course course = courseRepo.findById(courseId).orElse(null);
-
-        // Only allow deletion if course belongs to the logged-in teacher
-        if (teacher != null && course != null && course.getTeacher().getId().equals(teacher.getId())) {
-            // Remove course from all enrolled students first
-            List<Student> students = studentRepo.findAll();
-            for (Student student : students) {
-                student.getCourses().removeIf(c -> c.getId().equals(courseId));
-                studentRepo.save(student);
-            }
-            // Then delete the course
-            courseRepo.delete(course);
-        }
+        // Only deletes the course if it belongs to the logged-in teacher
+        courseService.deleteCourse(courseId, auth.getName());
         return "redirect:/teacher/dashboard";
     }
 }
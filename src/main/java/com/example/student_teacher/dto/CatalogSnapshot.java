@@ -0,0 +1,10 @@
+package com.example.student_teacher.dto;
+
+import java.util.List;
+
+/**
+ * An immutable view of every course, ordered by id. {@code generation} increases by
+ * one with each course change, so two snapshots with the same generation are equal.
+ */
+public record CatalogSnapshot(long generation, List<CourseSummary> courses) {
+}
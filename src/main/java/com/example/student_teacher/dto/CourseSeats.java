@@ -0,0 +1,7 @@
+package com.example.student_teacher.dto;
+
+/**
+ * Seat counts of one course. A null capacity means no limit.
+ */
+public record CourseSeats(Long id, Integer capacity, int enrolledCount) {
+}
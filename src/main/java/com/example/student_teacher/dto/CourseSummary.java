@@ -0,0 +1,7 @@
+package com.example.student_teacher.dto;
+
+/**
+ * Course fields rendered by the dashboards, with the teacher flattened to a name.
+ */
+public record CourseSummary(Long id, String title, int credit, String teacherName) {
+}
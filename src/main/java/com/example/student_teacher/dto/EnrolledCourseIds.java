@@ -0,0 +1,47 @@
+package com.example.student_teacher.dto;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Objects;
+
+/**
+ * Immutable set of course ids backed by a sorted {@code long[]}.
+ * Membership is a binary search over a handful of primitives, so it does not
+ * depend on entity identity or on Course implementing equals/hashCode.
+ */
+public final class EnrolledCourseIds {
+
+    private static final EnrolledCourseIds EMPTY = new EnrolledCourseIds(new long[0]);
+
+    private final long[] sortedIds;
+
+    private EnrolledCourseIds(long[] sortedIds) {
+        this.sortedIds = sortedIds;
+    }
+
+    public static EnrolledCourseIds of(Collection<Long> ids) {
+        long[] sorted = ids.stream()
+                .filter(Objects::nonNull)
+                .mapToLong(Long::longValue)
+                .sorted()
+                .distinct()
+                .toArray();
+        return sorted.length == 0 ? EMPTY : new EnrolledCourseIds(sorted);
+    }
+
+    public static EnrolledCourseIds empty() {
+        return EMPTY;
+    }
+
+    public boolean contains(Long id) {
+        return id != null && Arrays.binarySearch(sortedIds, id) >= 0;
+    }
+
+    public int size() {
+        return sortedIds.length;
+    }
+
+    public boolean isEmpty() {
+        return sortedIds.length == 0;
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.student_teacher.dto;
+
+/**
+ * One student asking for a seat in one course, as queued by the enrollment admission layer.
+ */
+public record EnrollmentRequest(Long studentId, Long courseId) {
+}
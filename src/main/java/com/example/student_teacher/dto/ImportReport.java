@@ -0,0 +1,10 @@
+package com.example.student_teacher.dto;
+
+import java.util.List;
+
+/**
+ * Result of a student import: how many rows were created and rejected, and the
+ * outcome of every row in upload order.
+ */
+public record ImportReport(int created, int rejected, List<ImportRowResult> rows) {
+}
@@ -0,0 +1,12 @@
+package com.example.student_teacher.dto;
+
+/**
+ * Outcome of one data row of a student import. {@code line} is the 1-based line
+ * number in the upload; {@code id} is set only for created students.
+ */
+public record ImportRowResult(int line, String email, Status status, Long id, String message) {
+
+    public enum Status {
+        CREATED, DUPLICATE, INVALID, FAILED
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.student_teacher.dto;
+
+/**
+ * One row per enrolled course of a student; {@code courseId} is null for a student
+ * without enrollments.
+ */
+public record StudentEnrollmentRow(String studentName, Long courseId) {
+}
@@ -0,0 +1,10 @@
+package com.example.student_teacher.dto;
+
+import java.util.List;
+
+/**
+ * One keyset page of students. {@code nextCursor} is the id to pass as {@code after}
+ * for the next page, or null when this is the last page.
+ */
+public record StudentPage(List<StudentSummary> items, Long nextCursor) {
+}
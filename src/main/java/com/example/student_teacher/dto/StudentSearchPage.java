@@ -0,0 +1,10 @@
+package com.example.student_teacher.dto;
+
+import java.util.List;
+
+/**
+ * One page of ranked student search results. {@code nextOffset} is the offset of
+ * the next page, or null when this is the last page.
+ */
+public record StudentSearchPage(List<StudentSummary> items, Integer nextOffset) {
+}
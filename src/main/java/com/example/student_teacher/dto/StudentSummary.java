@@ -0,0 +1,7 @@
+package com.example.student_teacher.dto;
+
+/**
+ * Student fields safe to return from the API (no password hash, no course set).
+ */
+public record StudentSummary(Long id, String name, String email) {
+}
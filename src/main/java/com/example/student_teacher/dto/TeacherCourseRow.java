@@ -0,0 +1,10 @@
+package com.example.student_teacher.dto;
+
+/**
+ * One row of the teacher dashboard query: a course with its enrolled-student count,
+ * plus the teacher's course count and total credits repeated on every row. A teacher
+ * without courses gets a single row whose course fields are null.
+ */
+public record TeacherCourseRow(String teacherName, Long courseId, String title, Integer credit, Integer capacity,
+        long enrolledStudents, long courseCount, long totalCredits) {
+}
@@ -0,0 +1,20 @@
+package com.example.student_teacher.dto;
+
+import java.util.List;
+
+/**
+ * Everything the teacher dashboard renders, built from the rows of
+ * {@code CourseRepository.findTeacherDashboardRows} without loading any entity.
+ */
+public record TeacherDashboard(String teacherName, long courseCount, long totalCredits,
+        List<TeacherCourseRow> courses) {
+
+    public static TeacherDashboard of(List<TeacherCourseRow> rows) {
+        if (rows.isEmpty()) {
+            return new TeacherDashboard(null, 0, 0, List.of());
+        }
+        TeacherCourseRow first = rows.get(0);
+        List<TeacherCourseRow> courses = rows.stream().filter(row -> row.courseId() != null).toList();
+        return new TeacherDashboard(first.teacherName(), first.courseCount(), first.totalCredits(), courses);
+    }
+}
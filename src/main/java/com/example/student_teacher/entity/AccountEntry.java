@@ -0,0 +1,48 @@
+package com.example.student_teacher.entity;
+
+import org.hibernate.annotations.Immutable;
+import org.hibernate.annotations.Synchronize;
+
+import jakarta.persistence.*;
+
+/**
+ * Row of the account directory: one entry per login email, pointing at the
+ * student or teacher that owns it. Rows are maintained by
+ * {@code AccountDirectoryListener} whenever a Student or Teacher is written,
+ * so queries flush pending student and teacher changes first.
+ */
+@Entity
+@Immutable
+@Synchronize({"student", "teacher"})
+@Table(name = "account_directory",
+        indexes = @Index(name = "ux_account_directory_role_account", columnList = "role, account_id", unique = true))
+public class AccountEntry {
+
+    @Id
+    private String email;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Role role;
+
+    @Column(name = "account_id", nullable = false)
+    private Long accountId;
+
+    @Column(name = "password_hash")
+    private String passwordHash;
+
+    protected AccountEntry() {
+    }
+
+    public AccountEntry(String email, Role role, Long accountId, String passwordHash) {
+        this.email = email;
+        this.role = role;
+        this.accountId = accountId;
+        this.passwordHash = passwordHash;
+    }
+
+    public String getEmail() { return email; }
+    public Role getRole() { return role; }
+    public Long getAccountId() { return accountId; }
+    public String getPasswordHash() { return passwordHash; }
+}
@@ -1,27 +1,54 @@
 package com.example.student_teacher.entity;
 
+import java.util.HashSet;
+import java.util.Set;
+
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
 
 import jakarta.persistence.*;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "course")
 public class Course {
 
     @Id
-    @GeneratedValue
+    @PooledSequence("course_seq")
     private Long id;
 
     private String title;
     private int credit;
 
+    // Seats offered; null means no limit
+    private Integer capacity;
+
+    // Changed only by the conditional updates in CourseRepository, never written from the entity
+    @ColumnDefault("0")
+    @Column(nullable = false, insertable = false, updatable = false)
+    private int enrolledCount;
+
     @ManyToOne
     private Teacher teacher;
 
+    // Read side of Student.courses; enrollments are written through EnrollmentService, never through this set
+    @ManyToMany(mappedBy = "courses")
+    @JsonIgnore
+    private Set<Student> students = new HashSet<>();
+
     public Long getId() { return id; }
     public String getTitle() { return title; }
     public int getCredit() { return credit; }
+    public Integer getCapacity() { return capacity; }
+    public int getEnrolledCount() { return enrolledCount; }
     public Teacher getTeacher() { return teacher; }
+    public Set<Student> getStudents() { return students; }
 
     public void setTitle(String title) { this.title = title; }
     public void setCredit(int credit) { this.credit = credit; }
+    public void setCapacity(Integer capacity) { this.capacity = capacity; }
     public void setTeacher(Teacher teacher) { this.teacher = teacher; }
 }
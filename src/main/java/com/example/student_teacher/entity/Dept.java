@@ -1,14 +1,13 @@
 package com.example.student_teacher.entity;
 
 import jakarta.persistence.Entity;
-import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.Id;
 
 @Entity
 public class Dept {
 
     @Id
-    @GeneratedValue
+    @PooledSequence("dept_seq")
     private Long id;
 
     private String name;
@@ -0,0 +1,42 @@
+package com.example.student_teacher.entity;
+
+import java.time.Instant;
+
+import jakarta.persistence.*;
+
+/**
+ * A domain event waiting to be delivered. Written in the same transaction as the
+ * change it describes and deleted once it has been delivered, so an event is
+ * never lost to a crash between the commit and the delivery.
+ */
+@Entity
+@Table(name = "event_outbox")
+public class OutboxEvent {
+
+    @Id
+    @PooledSequence("event_outbox_seq")
+    private Long id;
+
+    @Column(name = "event_type", nullable = false, length = 64)
+    private String eventType;
+
+    @Column(nullable = false, length = 1000)
+    private String payload;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    protected OutboxEvent() {
+    }
+
+    public OutboxEvent(String eventType, String payload, Instant createdAt) {
+        this.eventType = eventType;
+        this.payload = payload;
+        this.createdAt = createdAt;
+    }
+
+    public Long getId() { return id; }
+    public String getEventType() { return eventType; }
+    public String getPayload() { return payload; }
+    public Instant getCreatedAt() { return createdAt; }
+}
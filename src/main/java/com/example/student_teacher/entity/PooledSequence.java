@@ -0,0 +1,24 @@
+package com.example.student_teacher.entity;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+/**
+ * Generates ids from the named database sequence with a pooled optimizer: one
+ * sequence call hands out a block of {@code app.jpa.id-allocation-size} ids, so
+ * inserts need no extra round trip per row and can be sent as JDBC batches.
+ */
+@IdGeneratorType(PooledSequenceGenerator.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ ElementType.FIELD, ElementType.METHOD })
+public @interface PooledSequence {
+
+    /**
+     * Name of the database sequence.
+     */
+    String value();
+}
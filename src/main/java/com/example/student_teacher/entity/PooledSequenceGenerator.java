@@ -0,0 +1,40 @@
+package com.example.student_teacher.entity;
+
+import java.lang.reflect.Member;
+import java.util.Properties;
+
+import org.hibernate.MappingException;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.config.spi.StandardConverters;
+import org.hibernate.generator.GeneratorCreationContext;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+
+/**
+ * {@link SequenceStyleGenerator} behind {@link PooledSequence}. The block size is
+ * read from the {@value #ALLOCATION_SIZE_SETTING} Hibernate setting, so it can be
+ * tuned per environment instead of being fixed in every entity. The optimizer is
+ * Hibernate's pooled one unless {@code hibernate.id.optimizer.pooled.preferred}
+ * selects another, e.g. {@code pooled-lo}.
+ * <p>
+ * The database sequence must be created with the same increment as the block size.
+ */
+public class PooledSequenceGenerator extends SequenceStyleGenerator {
+
+    public static final String ALLOCATION_SIZE_SETTING = "app.jpa.id_allocation_size";
+    public static final int DEFAULT_ALLOCATION_SIZE = 50;
+
+    private final String sequenceName;
+
+    public PooledSequenceGenerator(PooledSequence config, Member member, GeneratorCreationContext context) {
+        this.sequenceName = config.value();
+    }
+
+    @Override
+    public void configure(GeneratorCreationContext creationContext, Properties parameters) throws MappingException {
+        int allocationSize = creationContext.getServiceRegistry().requireService(ConfigurationService.class)
+                .getSetting(ALLOCATION_SIZE_SETTING, StandardConverters.INTEGER, DEFAULT_ALLOCATION_SIZE);
+        parameters.put(SEQUENCE_PARAM, sequenceName);
+        parameters.put(INCREMENT_PARAM, String.valueOf(allocationSize));
+        super.configure(creationContext, parameters);
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.student_teacher.entity;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
 import java.util.Set;
 import java.util.HashSet;
@@ -8,7 +9,7 @@ import java.util.HashSet;
 public class Student {
 
     @Id
-    @GeneratedValue
+    @PooledSequence("student_seq")
     private Long id;
 
     private String name;
@@ -16,6 +17,7 @@ public class Student {
     @Column(unique = true)
     private String email;
 
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
     private String password;
 
     @Enumerated(EnumType.STRING)
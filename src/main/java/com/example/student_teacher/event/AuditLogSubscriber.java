@@ -0,0 +1,24 @@
+package com.example.student_teacher.event;
+
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Writes one line per domain event to the {@code audit} logger, so enrollment
+ * history can be routed to its own appender without slowing down the request.
+ */
+@Component
+public class AuditLogSubscriber implements DomainEventSubscriber {
+
+    private static final Logger audit = LoggerFactory.getLogger("audit");
+
+    @Override
+    public void onEvents(List<DomainEvent> events) {
+        if (audit.isInfoEnabled()) {
+            events.forEach(event -> audit.info("{}", event));
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.student_teacher.event;
+
+/**
+ * A change to enrollments, courses or students. Recorded with {@link EventOutbox}
+ * in the transaction that makes the change and delivered to every
+ * {@link DomainEventSubscriber} after it commits.
+ */
+public sealed interface DomainEvent {
+
+    record EnrollmentCreated(long studentId, long courseId) implements DomainEvent {
+    }
+
+    record EnrollmentDropped(long studentId, long courseId) implements DomainEvent {
+    }
+
+    /** The course and all of its enrollments were deleted. */
+    record CourseDeleted(long courseId) implements DomainEvent {
+    }
+
+    /** The student was deleted; an {@link EnrollmentDropped} precedes it for each of their courses. */
+    record StudentDeleted(long studentId) implements DomainEvent {
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.student_teacher.event;
+
+import java.util.List;
+
+/**
+ * Handles domain events off the request thread. Beans implementing this interface
+ * are called by {@link EventOutbox} with batches of committed events, in the order
+ * they were recorded within a batch.
+ * <p>
+ * Delivery is at least once: a batch is delivered again if any subscriber throws,
+ * or if the node stops before the batch is marked delivered. Handlers must be
+ * idempotent and should not block for long, since they share the event workers.
+ */
+public interface DomainEventSubscriber {
+
+    void onEvents(List<DomainEvent> events);
+}
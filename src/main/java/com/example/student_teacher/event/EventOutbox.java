@@ -0,0 +1,264 @@
+package com.example.student_teacher.event;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.example.student_teacher.entity.OutboxEvent;
+import com.example.student_teacher.repository.OutboxEventRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import tools.jackson.databind.ObjectMapper;
+
+/**
+ * In-process event bus backed by a transactional outbox.
+ * <p>
+ * {@link #record} writes the event to the event_outbox table in the caller's
+ * transaction, so the request only pays for one batched insert. Once that
+ * transaction commits, the event is handed to a bounded queue; one worker takes
+ * it off in batches of up to {@code app.events.batch-size}, passes each batch to
+ * every {@link DomainEventSubscriber} and then deletes the delivered rows.
+ * <p>
+ * The request thread never waits for the queue. When it is full, or the batch
+ * fails, or the node stops before delivery, the row stays in the outbox and
+ * {@link #redeliverPending} queues it again once it is older than
+ * {@code app.events.redeliver-after}. That runs every
+ * {@code app.events.poll-interval}, so delivery is at least once.
+ */
+@Service
+public class EventOutbox {
+
+    private static final Logger log = LoggerFactory.getLogger(EventOutbox.class);
+
+    private record Envelope(long id, DomainEvent event, Instant createdAt) {
+    }
+
+    private static final Map<String, Class<? extends DomainEvent>> EVENT_TYPES = Arrays
+            .stream(DomainEvent.class.getPermittedSubclasses())
+            .map(type -> type.asSubclass(DomainEvent.class))
+            .collect(Collectors.toUnmodifiableMap(Class::getSimpleName, Function.identity()));
+
+    private final OutboxEventRepository outboxRepo;
+    private final ObjectMapper objectMapper;
+    private final List<DomainEventSubscriber> subscribers;
+    private final MeterRegistry meterRegistry;
+    private final BlockingQueue<Envelope> queue;
+    // Ids queued or being delivered, so redelivery does not queue them twice
+    private final Set<Long> inFlight = ConcurrentHashMap.newKeySet();
+    private final int batchSize;
+    private final Duration redeliverAfter;
+    private final Thread worker;
+
+    private final Timer lag;
+    private final DistributionSummary batchSizes;
+    private final Counter overflow;
+    private final Counter failures;
+
+    public EventOutbox(OutboxEventRepository outboxRepo, ObjectMapper objectMapper,
+            List<DomainEventSubscriber> subscribers, MeterRegistry meterRegistry,
+            @Value("${app.events.queue-capacity:10000}") int queueCapacity,
+            @Value("${app.events.batch-size:100}") int batchSize,
+            @Value("${app.events.redeliver-after:30s}") Duration redeliverAfter) {
+        this.outboxRepo = outboxRepo;
+        this.objectMapper = objectMapper;
+        this.subscribers = List.copyOf(subscribers);
+        this.meterRegistry = meterRegistry;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.redeliverAfter = redeliverAfter;
+
+        Gauge.builder("events.queue.depth", queue, BlockingQueue::size)
+                .description("Committed events waiting for the event worker")
+                .register(meterRegistry);
+        this.lag = Timer.builder("events.delivery.lag")
+                .description("Time from recording an event until every subscriber has handled it")
+                .register(meterRegistry);
+        this.batchSizes = DistributionSummary.builder("events.batch.size")
+                .description("Events delivered per batch")
+                .register(meterRegistry);
+        this.overflow = Counter.builder("events.overflow")
+                .description("Events left in the outbox for redelivery because the queue was full")
+                .register(meterRegistry);
+        this.failures = Counter.builder("events.delivery.failures")
+                .description("Batches left in the outbox because a subscriber failed")
+                .register(meterRegistry);
+
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("event-worker-");
+        threadFactory.setDaemon(true);
+        this.worker = threadFactory.newThread(this::work);
+        this.worker.start();
+    }
+
+    /**
+     * Writes the event to the outbox in the current transaction. It is delivered
+     * after the transaction commits, and never if it rolls back.
+     *
+     * @throws IllegalStateException if no transaction is active
+     */
+    public void record(DomainEvent event) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Domain events must be recorded inside a transaction");
+        }
+        OutboxEvent row = outboxRepo.save(new OutboxEvent(event.getClass().getSimpleName(),
+                objectMapper.writeValueAsString(event), Instant.now()));
+        pendingEvents().envelopes.add(new Envelope(row.getId(), event, row.getCreatedAt()));
+    }
+
+    /**
+     * Queues outbox rows that are older than {@code app.events.redeliver-after} and
+     * not queued already, up to the free queue capacity. Runs every
+     * {@code app.events.poll-interval}; also picks up events left behind by a crash.
+     *
+     * @return the number of events queued
+     */
+    public int redeliverPending() {
+        int free = queue.remainingCapacity();
+        if (free == 0) {
+            return 0;
+        }
+        int queued = 0;
+        for (OutboxEvent row : outboxRepo.findWrittenBefore(Instant.now().minus(redeliverAfter), Limit.of(free))) {
+            Class<? extends DomainEvent> type = EVENT_TYPES.get(row.getEventType());
+            if (type == null) {
+                log.warn("Outbox event {} has unknown type {}", row.getId(), row.getEventType());
+                continue;
+            }
+            if (!inFlight.add(row.getId())) {
+                continue;
+            }
+            Envelope envelope = new Envelope(row.getId(), objectMapper.readValue(row.getPayload(), type),
+                    row.getCreatedAt());
+            if (!queue.offer(envelope)) {
+                inFlight.remove(row.getId());
+                break;
+            }
+            queued++;
+        }
+        return queued;
+    }
+
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        // Queued events are still in the outbox and are delivered after the next start
+        worker.interrupt();
+    }
+
+    private PendingEvents pendingEvents() {
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof PendingEvents pending && pending.outbox() == this) {
+                return pending;
+            }
+        }
+        PendingEvents pending = new PendingEvents();
+        TransactionSynchronizationManager.registerSynchronization(pending);
+        return pending;
+    }
+
+    private void enqueue(List<Envelope> envelopes) {
+        for (Envelope envelope : envelopes) {
+            if (!inFlight.add(envelope.id())) {
+                continue;
+            }
+            if (!queue.offer(envelope)) {
+                inFlight.remove(envelope.id());
+                overflow.increment();
+            }
+        }
+    }
+
+    private void work() {
+        List<Envelope> batch = new ArrayList<>(batchSize);
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            queue.drainTo(batch, batchSize - 1);
+            deliver(batch);
+            batch.clear();
+        }
+    }
+
+    private void deliver(List<Envelope> batch) {
+        List<DomainEvent> events = batch.stream().map(Envelope::event).toList();
+        List<Long> ids = batch.stream().map(Envelope::id).toList();
+        batchSizes.record(batch.size());
+        try {
+            for (DomainEventSubscriber subscriber : subscribers) {
+                subscriber.onEvents(events);
+            }
+            outboxRepo.deleteAllByIdInBatch(ids);
+            Instant now = Instant.now();
+            for (Envelope envelope : batch) {
+                lag.record(Duration.between(envelope.createdAt(), now));
+                meterRegistry.counter("events.delivered", "type", envelope.event().getClass().getSimpleName())
+                        .increment();
+            }
+        } catch (RuntimeException e) {
+            failures.increment();
+            log.warn("Delivering {} events failed; they stay in the outbox for redelivery", batch.size(), e);
+        } finally {
+            ids.forEach(inFlight::remove);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.events.poll-interval:10s}",
+            initialDelayString = "${app.events.poll-interval:10s}")
+    void redeliverQuietly() {
+        try {
+            int queued = redeliverPending();
+            if (queued > 0) {
+                log.info("Queued {} undelivered events from the outbox", queued);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Could not read undelivered events from the outbox", e);
+        }
+    }
+
+    /**
+     * Events recorded in one transaction, queued when it commits.
+     */
+    private final class PendingEvents implements TransactionSynchronization {
+
+        private final List<Envelope> envelopes = new ArrayList<>();
+
+        EventOutbox outbox() {
+            return EventOutbox.this;
+        }
+
+        @Override
+        public void afterCommit() {
+            enqueue(envelopes);
+        }
+    }
+}
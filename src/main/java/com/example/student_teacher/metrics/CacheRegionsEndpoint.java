@@ -0,0 +1,49 @@
+package com.example.student_teacher.metrics;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Actuator endpoint ({@code /actuator/cacheregions}) listing every Hibernate
+ * second-level cache region with its hit ratio and size, for sizing the regions
+ * configured in {@code application.conf}.
+ */
+@Component
+@Endpoint(id = "cacheregions")
+public class CacheRegionsEndpoint {
+
+    public record RegionStats(long hits, long misses, long puts, long elementsInMemory, double hitRatio) {
+    }
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    public CacheRegionsEndpoint(EntityManagerFactory entityManagerFactory) {
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    @ReadOperation
+    public Map<String, RegionStats> regions() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        Map<String, RegionStats> regions = new TreeMap<>();
+        for (String name : statistics.getSecondLevelCacheRegionNames()) {
+            CacheRegionStatistics region = statistics.getCacheRegionStatistics(name);
+            if (region == null) {
+                continue;
+            }
+            long lookups = region.getHitCount() + region.getMissCount();
+            double hitRatio = lookups == 0 ? 0.0 : (double) region.getHitCount() / lookups;
+            regions.put(name, new RegionStats(region.getHitCount(), region.getMissCount(),
+                    region.getPutCount(), region.getElementCountInMemory(), hitRatio));
+        }
+        return regions;
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.student_teacher.metrics;
+
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Names the controller method that served a request as {@code Controller#method},
+ * the tag used on the per-request metrics.
+ */
+public final class HandlerNames {
+
+    /** Name used for requests that never reached a controller method, such as static resources. */
+    public static final String NONE = "none";
+
+    private HandlerNames() {
+    }
+
+    public static String of(HttpServletRequest request) {
+        if (request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE) instanceof HandlerMethod method) {
+            return method.getBeanType().getSimpleName() + "#" + method.getMethod().getName();
+        }
+        return NONE;
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.student_teacher.metrics;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Counts the SQL statements Hibernate prepares on the current thread while a count
+ * is open. Registered as the session factory's statement inspector by
+ * {@code JpaConfig}; the SQL itself is passed through unchanged.
+ * <p>
+ * Counts nest: a count opened inside another (a test assertion around a MockMvc
+ * call that also passes the request filter) sees only its own statements, and the
+ * outer count sees them too. Identical SQL is counted per statement text, so a
+ * query repeated once per row, the usual N+1 pattern, stands out.
+ * <p>
+ * Statements run through {@code JdbcTemplate} bypass Hibernate and are not counted.
+ */
+public class StatementCounter implements StatementInspector {
+
+    private static final ThreadLocal<Tally> CURRENT = new ThreadLocal<>();
+
+    /**
+     * Statements seen by one count.
+     */
+    public static final class Tally {
+
+        private final Tally parent;
+        private final Map<String, Integer> bySql = new HashMap<>();
+        private int total;
+        private String mostRepeatedSql;
+        private int mostRepeatedCount;
+
+        private Tally(Tally parent) {
+            this.parent = parent;
+        }
+
+        private void record(String sql) {
+            total++;
+            int count = bySql.merge(sql, 1, Integer::sum);
+            if (count > mostRepeatedCount) {
+                mostRepeatedCount = count;
+                mostRepeatedSql = sql;
+            }
+        }
+
+        public int getTotal() {
+            return total;
+        }
+
+        /** The statement run most often, or {@code null} if none ran. */
+        public String getMostRepeatedSql() {
+            return mostRepeatedSql;
+        }
+
+        public int getMostRepeatedCount() {
+            return mostRepeatedCount;
+        }
+    }
+
+    @Override
+    public String inspect(String sql) {
+        for (Tally tally = CURRENT.get(); tally != null; tally = tally.parent) {
+            tally.record(sql);
+        }
+        return sql;
+    }
+
+    /**
+     * Opens a count on this thread, inside any count already open.
+     */
+    public static Tally begin() {
+        Tally tally = new Tally(CURRENT.get());
+        CURRENT.set(tally);
+        return tally;
+    }
+
+    /**
+     * Closes the innermost count on this thread.
+     *
+     * @return the statements prepared since the matching {@link #begin}; empty if
+     *         no count was open
+     */
+    public static Tally end() {
+        Tally tally = CURRENT.get();
+        if (tally == null) {
+            return new Tally(null);
+        }
+        if (tally.parent == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(tally.parent);
+        }
+        return tally;
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.student_teacher.repository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Startup migration that copies student and teacher accounts missing from
+ * account_directory, e.g. rows created before the directory existed or loaded
+ * with plain SQL scripts. Students are copied first so they keep priority on
+ * duplicate emails. Safe to run repeatedly.
+ */
+@Component
+@ConditionalOnProperty(name = "app.account-directory.backfill-on-startup", havingValue = "true", matchIfMissing = true)
+public class AccountDirectoryBackfill implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(AccountDirectoryBackfill.class);
+
+    private static final String BACKFILL = """
+            INSERT INTO account_directory (email, role, account_id, password_hash)
+            SELECT a.email, '%s', a.id, a.password FROM %s a
+            WHERE a.email IS NOT NULL
+              AND NOT EXISTS (SELECT 1 FROM account_directory d WHERE d.email = a.email)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public AccountDirectoryBackfill(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    @Transactional
+    public void run(ApplicationArguments args) {
+        int students = jdbcTemplate.update(BACKFILL.formatted("STUDENT", "student"));
+        int teachers = jdbcTemplate.update(BACKFILL.formatted("TEACHER", "teacher"));
+        if (students + teachers > 0) {
+            log.info("Backfilled account directory with {} students and {} teachers", students, teachers);
+        }
+    }
+}
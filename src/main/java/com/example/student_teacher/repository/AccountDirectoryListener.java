@@ -0,0 +1,171 @@
+package com.example.student_teacher.repository;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import com.example.student_teacher.entity.Role;
+import com.example.student_teacher.entity.Student;
+import com.example.student_teacher.entity.Teacher;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Keeps the account_directory table in sync with every Student and Teacher
+ * insert, update and delete made through the repositories.
+ * The directory row is written on the same connection and transaction as the
+ * entity row, so both commit or roll back together.
+ * When a deleted account shared its email with an account of the other role,
+ * that account takes over the directory row.
+ * <p>
+ * Bulk inserts go through {@link #insertInBatch}, which writes the directory rows
+ * of many accounts as one JDBC batch instead of one statement per account.
+ */
+@Component
+public class AccountDirectoryListener
+        implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener {
+
+    // Skips emails already claimed by another account, matching the old student-first lookup order
+    private static final String INSERT = """
+            INSERT INTO account_directory (email, role, account_id, password_hash)
+            SELECT ?, ?, ?, ? WHERE NOT EXISTS (SELECT 1 FROM account_directory WHERE email = ?)
+            """;
+    private static final String UPDATE =
+            "UPDATE account_directory SET email = ?, password_hash = ? WHERE role = ? AND account_id = ?";
+    private static final String DELETE =
+            "DELETE FROM account_directory WHERE role = ? AND account_id = ?";
+    // Hands a freed email to the other account that still uses it, if any
+    private static final String REASSIGN = """
+            INSERT INTO account_directory (email, role, account_id, password_hash)
+            SELECT a.email, '%s', a.id, a.password FROM %s a
+            WHERE a.email = ? AND NOT EXISTS (SELECT 1 FROM account_directory WHERE email = ?)
+            """;
+
+    private record Account(Role role, Long id, String email, String passwordHash) {
+    }
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final JdbcTemplate jdbcTemplate;
+    // Entities whose directory rows insertInBatch writes itself
+    private final ThreadLocal<Set<Object>> batchedInserts = new ThreadLocal<>();
+
+    public AccountDirectoryListener(EntityManagerFactory entityManagerFactory, JdbcTemplate jdbcTemplate) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    void register() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry().requireService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_INSERT, this);
+        registry.appendListeners(EventType.POST_UPDATE, this);
+        registry.appendListeners(EventType.POST_DELETE, this);
+    }
+
+    /**
+     * Runs {@code insert}, which must insert and flush the given students or teachers,
+     * then writes all their directory rows with one batched statement. Must be called
+     * inside the transaction that inserts them.
+     */
+    public void insertInBatch(Collection<?> entities, Runnable insert) {
+        Set<Object> batched = Collections.newSetFromMap(new IdentityHashMap<>());
+        batched.addAll(entities);
+        batchedInserts.set(batched);
+        try {
+            insert.run();
+        } finally {
+            batchedInserts.remove();
+        }
+        List<Object[]> rows = entities.stream()
+                .map(AccountDirectoryListener::toAccount)
+                .filter(Objects::nonNull)
+                .filter(account -> account.email() != null)
+                .map(account -> new Object[] { account.email(), account.role().name(), account.id(),
+                        account.passwordHash(), account.email() })
+                .toList();
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT, rows);
+        }
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        Set<Object> batched = batchedInserts.get();
+        if (batched != null && batched.contains(event.getEntity())) {
+            return;
+        }
+        Account account = toAccount(event.getEntity());
+        if (account == null || account.email() == null) {
+            return;
+        }
+        event.getSession().doWork(connection -> execute(connection, INSERT,
+                account.email(), account.role().name(), account.id(), account.passwordHash(), account.email()));
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        Account account = toAccount(event.getEntity());
+        if (account == null) {
+            return;
+        }
+        event.getSession().doWork(connection -> execute(connection, UPDATE,
+                account.email(), account.passwordHash(), account.role().name(), account.id()));
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        Account account = toAccount(event.getEntity());
+        if (account == null) {
+            return;
+        }
+        event.getSession().doWork(connection -> {
+            execute(connection, DELETE, account.role().name(), account.id());
+            // Emails are unique per table, so only an account of the other role can share it
+            if (account.email() != null) {
+                String sql = account.role() == Role.STUDENT
+                        ? REASSIGN.formatted("TEACHER", "teacher")
+                        : REASSIGN.formatted("STUDENT", "student");
+                execute(connection, sql, account.email(), account.email());
+            }
+        });
+    }
+
+    private static Account toAccount(Object entity) {
+        if (entity instanceof Student student) {
+            return new Account(Role.STUDENT, student.getId(), student.getEmail(), student.getPassword());
+        }
+        if (entity instanceof Teacher teacher) {
+            return new Account(Role.TEACHER, teacher.getId(), teacher.getEmail(), teacher.getPassword());
+        }
+        return null;
+    }
+
+    private static void execute(Connection connection, String sql, Object... params) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            for (int i = 0; i < params.length; i++) {
+                statement.setObject(i + 1, params[i]);
+            }
+            statement.executeUpdate();
+        }
+    }
+}
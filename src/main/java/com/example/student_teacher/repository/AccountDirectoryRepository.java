@@ -0,0 +1,25 @@
+package com.example.student_teacher.repository;
+
+import java.util.Collection;
+import java.util.Optional;
+import java.util.Set;
+
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.Repository;
+
+import com.example.student_teacher.entity.AccountEntry;
+
+/**
+ * Read-only access to the account directory. Writes happen through
+ * {@link AccountDirectoryListener}.
+ */
+public interface AccountDirectoryRepository extends Repository<AccountEntry, String> {
+
+    Optional<AccountEntry> findByEmail(String email);
+
+    /**
+     * Returns which of the given emails already belong to a student or teacher.
+     */
+    @Query("select a.email from AccountEntry a where a.email in :emails")
+    Set<String> findExistingEmails(Collection<String> emails);
+}
@@ -1,13 +1,136 @@
 package com.example.student_teacher.repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
+import com.example.student_teacher.dto.CourseSeats;
+import com.example.student_teacher.dto.CourseSummary;
+import com.example.student_teacher.dto.TeacherCourseRow;
 import com.example.student_teacher.entity.Course;
-import com.example.student_teacher.entity.Teacher;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
 
 public interface CourseRepository extends JpaRepository<Course, Long> {
 
-    List<Course> findByTeacher(Teacher teacher);
+    Optional<Course> findByIdAndTeacherEmail(Long id, String teacherEmail);
+
+    boolean existsByIdAndTeacherEmail(Long id, String teacherEmail);
+
+    /**
+     * The teacher dashboard in one statement: one row per course of the teacher with
+     * the number of students enrolled in it (the maintained enrolled_count), and the
+     * teacher's course count and total credits computed by window functions over the
+     * same rows. Returns no rows for an unknown email.
+     */
+    @Query(value = """
+            SELECT t.name AS teacher_name, c.id AS course_id, c.title, c.credit, c.capacity,
+                   COALESCE(c.enrolled_count, 0) AS enrolled_students,
+                   COUNT(c.id) OVER () AS course_count,
+                   COALESCE(SUM(c.credit) OVER (), 0) AS total_credits
+            FROM teacher t LEFT JOIN course c ON c.teacher_id = t.id
+            WHERE t.email = :email
+            ORDER BY c.id
+            """, nativeQuery = true)
+    List<TeacherCourseRow> findTeacherDashboardRows(String email);
+
+    /**
+     * All courses as view models with the teacher name joined in, without hydrating entities.
+     */
+    @Query("select new com.example.student_teacher.dto.CourseSummary(c.id, c.title, c.credit, t.name) "
+            + "from Course c left join c.teacher t order by c.id")
+    List<CourseSummary> findAllSummaries();
+
+    /**
+     * Current seat counts of every course, ordered by id. Kept out of the catalog,
+     * whose snapshot only changes when a course does.
+     */
+    @Query("select new com.example.student_teacher.dto.CourseSeats(c.id, c.capacity, c.enrolledCount) "
+            + "from Course c order by c.id")
+    List<CourseSeats> findAllSeats();
+
+    /**
+     * Takes one seat if the course has room. The capacity check and the increment
+     * are one conditional update, so concurrent callers queue on the course row and
+     * the count can never pass the capacity.
+     * <p>
+     * Declares student_courses as its query space so Hibernate does not flush the
+     * whole course cache region; callers evict the one course entry instead.
+     *
+     * @return 1 if a seat was taken, 0 if the course is full or does not exist
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "student_courses"))
+    @Query(value = """
+            UPDATE course SET enrolled_count = enrolled_count + 1
+            WHERE id = :courseId AND (capacity IS NULL OR enrolled_count < capacity)
+            """, nativeQuery = true)
+    int reserveSeat(Long courseId);
+
+    /**
+     * Gives back one seat taken by {@link #reserveSeat}.
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "student_courses"))
+    @Query(value = "UPDATE course SET enrolled_count = enrolled_count - 1 WHERE id = :courseId AND enrolled_count > 0",
+            nativeQuery = true)
+    int releaseSeat(Long courseId);
+
+    /**
+     * Ids of the courses whose enrolled_count differs from their student_courses rows,
+     * ascending. Read without locks, so a course may show up while an enrollment in it
+     * is being committed; {@link #recountEnrollments} decides under the row lock.
+     */
+    @Query(value = """
+            SELECT c.id FROM course c
+            WHERE c.enrolled_count <> (SELECT COUNT(*) FROM student_courses sc WHERE sc.course_id = c.id)
+            ORDER BY c.id
+            """, nativeQuery = true)
+    List<Long> findIdsWithEnrollmentDrift();
+
+    /**
+     * Locks the course row until the end of the transaction. Enrollments and drops
+     * take the same lock when they change the count.
+     * <p>
+     * A pessimistic write lock is rendered by the dialect: {@code FOR NO KEY UPDATE}
+     * on PostgreSQL, which unlike {@code FOR UPDATE} does not conflict with the
+     * {@code FOR KEY SHARE} lock that inserting a student_courses row takes on the
+     * course through its foreign key.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select c.id from Course c where c.id = :courseId")
+    Optional<Long> lockById(Long courseId);
+
+    /**
+     * Locks the given course rows, in id order, and returns their seat counts.
+     * Missing ids are left out. Locked like {@link #lockById}.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select new com.example.student_teacher.dto.CourseSeats(c.id, c.capacity, c.enrolledCount) "
+            + "from Course c where c.id in :courseIds order by c.id")
+    List<CourseSeats> lockSeats(Collection<Long> courseIds);
+
+    /**
+     * Recomputes enrolled_count of one course from student_courses. Call with the row
+     * locked by {@link #lockById}: the count then includes every committed enrollment,
+     * and enrollments still in flight add their seat after this update.
+     *
+     * @return 1 if the count was off and has been corrected, 0 otherwise
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "student_courses"))
+    @Query(value = """
+            UPDATE course SET enrolled_count = (SELECT COUNT(*) FROM student_courses sc WHERE sc.course_id = :courseId)
+            WHERE id = :courseId
+              AND enrolled_count <> (SELECT COUNT(*) FROM student_courses sc WHERE sc.course_id = :courseId)
+            """, nativeQuery = true)
+    int recountEnrollments(Long courseId);
 }
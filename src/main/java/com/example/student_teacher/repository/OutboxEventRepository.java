@@ -0,0 +1,19 @@
+package com.example.student_teacher.repository;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import com.example.student_teacher.entity.OutboxEvent;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /**
+     * Oldest undelivered events written before the given time, in id order.
+     */
+    @Query("select e from OutboxEvent e where e.createdAt < :before order by e.id")
+    List<OutboxEvent> findWrittenBefore(Instant before, Limit limit);
+}
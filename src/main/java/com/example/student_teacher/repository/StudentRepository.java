@@ -1,10 +1,129 @@
 package com.example.student_teacher.repository;
 
 
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.student_teacher.dto.StudentEnrollmentRow;
+import com.example.student_teacher.dto.StudentSummary;
 import com.example.student_teacher.entity.Student;
+
+import jakarta.persistence.QueryHint;
+
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 public interface StudentRepository extends JpaRepository<Student, Long> {
     Optional<Student> findByEmail(String email);
+
+    @Query("select s.id from Student s where s.email = :email")
+    Optional<Long> findIdByEmail(String email);
+
+    /**
+     * Returns which of the given ids belong to a student.
+     */
+    @Query("select s.id from Student s where s.id in :ids")
+    Set<Long> findExistingIds(Collection<Long> ids);
+
+    /**
+     * Student name and enrolled course ids in one query, one row per enrolled course.
+     */
+    @Query("select new com.example.student_teacher.dto.StudentEnrollmentRow(s.name, c.id) "
+            + "from Student s left join s.courses c where s.email = :email")
+    List<StudentEnrollmentRow> findEnrollmentRowsByEmail(String email);
+
+    /**
+     * Keyset page of students ordered by id, starting after the given id.
+     */
+    @Query("select new com.example.student_teacher.dto.StudentSummary(s.id, s.name, s.email) "
+            + "from Student s where s.id > :after order by s.id")
+    List<StudentSummary> findSummariesAfter(Long after, Limit limit);
+
+    /**
+     * Scrolls over all students ordered by id. Must be consumed inside a transaction and closed.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select new com.example.student_teacher.dto.StudentSummary(s.id, s.name, s.email) "
+            + "from Student s order by s.id")
+    Stream<StudentSummary> streamSummaries();
+
+    /**
+     * Keyset page of the students enrolled in a course, ordered by id, starting after
+     * the given id. The range and the order are on the (course_id, student_id) index
+     * of student_courses, so a page reads only its own rows of the index.
+     */
+    @Query(value = """
+            SELECT s.id, s.name, s.email FROM student_courses sc JOIN student s ON s.id = sc.student_id
+            WHERE sc.course_id = :courseId AND sc.student_id > :after
+            ORDER BY sc.student_id
+            """, nativeQuery = true)
+    List<StudentSummary> findCourseSummariesAfter(Long courseId, Long after, Limit limit);
+
+    /**
+     * Scrolls over the students enrolled in a course, ordered by id. Must be consumed
+     * inside a transaction and closed.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(value = """
+            SELECT s.id, s.name, s.email FROM student_courses sc JOIN student s ON s.id = sc.student_id
+            WHERE sc.course_id = :courseId
+            ORDER BY sc.student_id
+            """, nativeQuery = true)
+    Stream<StudentSummary> streamCourseSummaries(Long courseId);
+
+    /**
+     * Ids of the students enrolled in the course, ascending. Read from the
+     * (course_id, student_id) index alone.
+     */
+    @Query(value = "SELECT student_id FROM student_courses WHERE course_id = :courseId ORDER BY student_id",
+            nativeQuery = true)
+    List<Long> findEnrolledStudentIds(Long courseId);
+
+    /**
+     * Ids of the courses the student is enrolled in, ascending. Read from the
+     * student_courses key alone.
+     */
+    @Query(value = "SELECT course_id FROM student_courses WHERE student_id = :studentId ORDER BY course_id",
+            nativeQuery = true)
+    List<Long> findEnrolledCourseIds(Long studentId);
+
+    /**
+     * Inserts one student_courses row if both ids exist and the row is not there yet.
+     *
+     * @return 1 if the row was inserted, 0 otherwise
+     */
+    @Transactional
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "student_courses"))
+    @Query(value = """
+            INSERT INTO student_courses (student_id, course_id)
+            SELECT s.id, c.id FROM student s, course c
+            WHERE s.id = :studentId AND c.id = :courseId
+              AND NOT EXISTS (SELECT 1 FROM student_courses sc
+                              WHERE sc.student_id = :studentId AND sc.course_id = :courseId)
+            """, nativeQuery = true)
+    int insertEnrollment(Long studentId, Long courseId);
+
+    @Transactional
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "student_courses"))
+    @Query(value = "DELETE FROM student_courses WHERE student_id = :studentId AND course_id = :courseId",
+            nativeQuery = true)
+    int deleteEnrollment(Long studentId, Long courseId);
+
+    /**
+     * Unlinks every student from the given course with one set-based delete on the join table.
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "student_courses"))
+    @Query(value = "DELETE FROM student_courses WHERE course_id = :courseId", nativeQuery = true)
+    int deleteEnrollmentsByCourseId(Long courseId);
 }
@@ -0,0 +1,29 @@
+package com.example.student_teacher.security;
+
+import java.util.List;
+
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+import com.example.student_teacher.entity.Role;
+
+/**
+ * Authenticated user that also carries the database id and role of the account,
+ * so controllers can act on the current user without looking the row up again.
+ */
+public class AccountPrincipal extends User {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Long id;
+    private final Role role;
+
+    public AccountPrincipal(Long id, Role role, String email, String password) {
+        super(email, password, List.of(new SimpleGrantedAuthority("ROLE_" + role.name())));
+        this.id = id;
+        this.role = role;
+    }
+
+    public Long getId() { return id; }
+    public Role getRole() { return role; }
+}
@@ -1,56 +1,79 @@
 package com.example.student_teacher.security;
 
 
-import com.example.student_teacher.entity.Student;
-import com.example.student_teacher.entity.Teacher;
+import com.example.student_teacher.entity.AccountEntry;
+import com.example.student_teacher.entity.Role;
+import com.example.student_teacher.repository.AccountDirectoryRepository;
 import com.example.student_teacher.repository.StudentRepository;
 import com.example.student_teacher.repository.TeacherRepository;
+import com.example.student_teacher.security.PrincipalCache.CachedAccount;
 
-import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
-
-import java.util.Optional;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
-public class CustomUserDetailsService implements UserDetailsService {
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
 
-    private final StudentRepository studentRepository;
-    private final TeacherRepository teacherRepository;
+    private final AccountDirectoryRepository accountDirectory;
+    private final PrincipalCache principalCache;
+    private final StudentRepository studentRepo;
+    private final TeacherRepository teacherRepo;
 
-    public CustomUserDetailsService(StudentRepository studentRepository,
-                                    TeacherRepository teacherRepository) {
-        this.studentRepository = studentRepository;
-        this.teacherRepository = teacherRepository;
+    public CustomUserDetailsService(AccountDirectoryRepository accountDirectory,
+                                    PrincipalCache principalCache,
+                                    StudentRepository studentRepo,
+                                    TeacherRepository teacherRepo) {
+        this.accountDirectory = accountDirectory;
+        this.principalCache = principalCache;
+        this.studentRepo = studentRepo;
+        this.teacherRepo = teacherRepo;
     }
 
     @Override
     public UserDetails loadUserByUsername(String email)
             throws UsernameNotFoundException {
 
-        // 1️⃣ Check STUDENT table
-        Optional<Student> student = studentRepository.findByEmail(email);
-        if (student.isPresent()) {
-            return User.builder()
-                    .username(student.get().getEmail())
-                    .password(student.get().getPassword())
-                    .roles("STUDENT")   // → ROLE_STUDENT
-                    .build();
-        }
+        // A fresh principal is built on every call because Spring Security erases its credentials
+        CachedAccount account = principalCache.get(email)
+                .orElseGet(() -> {
+                    CachedAccount loaded = loadAccount(email);
+                    principalCache.put(loaded);
+                    return loaded;
+                });
 
-        // 2️⃣ Check TEACHER table
-        Optional<Teacher> teacher = teacherRepository.findByEmail(email);
-        if (teacher.isPresent()) {
-            return User.builder()
-                    .username(teacher.get().getEmail())
-                    .password(teacher.get().getPassword())
-                    .roles("TEACHER")   // → ROLE_TEACHER
-                    .build();
+        return new AccountPrincipal(account.id(), account.role(),   // → ROLE_STUDENT / ROLE_TEACHER
+                account.email(), account.passwordHash());
+    }
+
+    /**
+     * Stores a rehashed password after a successful login whose stored hash is
+     * outdated (see {@link PasswordHashingService#upgradeEncoding}). The entity is
+     * updated, so the account directory row follows through its listener.
+     */
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        AccountPrincipal principal = (AccountPrincipal) user;
+        if (principal.getRole() == Role.STUDENT) {
+            studentRepo.findById(principal.getId()).ifPresent(student -> student.setPassword(newPassword));
+        } else {
+            teacherRepo.findById(principal.getId()).ifPresent(teacher -> teacher.setPassword(newPassword));
         }
+        principalCache.invalidate(principal.getUsername());
+
+        return new AccountPrincipal(principal.getId(), principal.getRole(), principal.getUsername(), newPassword);
+    }
+
+    private CachedAccount loadAccount(String email) {
+
+        // Students and teachers are resolved with one indexed lookup on the account directory
+        AccountEntry entry = accountDirectory.findByEmail(email)
+                .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + email));
 
-        // 3️⃣ Not found
-        throw new UsernameNotFoundException("User not found with email: " + email);
+        return new CachedAccount(entry.getAccountId(), entry.getRole(), entry.getEmail(), entry.getPasswordHash());
     }
 }
@@ -0,0 +1,176 @@
+package com.example.student_teacher.security;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.authentication.AuthenticationServiceException;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * The application's {@link PasswordEncoder}. Hashing runs on a fixed pool sized to
+ * the CPU count by default, so a login burst cannot put more BCrypt work on the
+ * CPUs than there are cores while request threads wait for their turn.
+ * <p>
+ * New hashes are stored as {@code {bcrypt}...}; older hashes without a prefix are
+ * still matched as BCrypt. {@link #upgradeEncoding} reports hashes without the
+ * prefix or with a lower cost than the current one, so they are rehashed on the
+ * next successful login. The cost is set by {@code app.security.hashing.strength},
+ * or calibrated at startup against {@code app.security.hashing.target-time} when
+ * the strength is 0.
+ * <p>
+ * The queue is bounded. When it is full, request threads fail fast with an
+ * {@link AuthenticationServiceException} while {@link #encodeAsync} callers hash
+ * the password themselves, which slows a bulk producer down instead of buffering.
+ */
+@Service
+public class PasswordHashingService implements PasswordEncoder {
+
+    static final int MIN_STRENGTH = 10;
+    static final int MAX_STRENGTH = 16;
+
+    private static final Logger log = LoggerFactory.getLogger(PasswordHashingService.class);
+
+    private final int strength;
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor executor;
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+    private final Counter rejected;
+
+    public PasswordHashingService(MeterRegistry meterRegistry,
+            @Value("${app.security.hashing.threads:0}") int threads,
+            @Value("${app.security.hashing.queue-capacity:1000}") int queueCapacity,
+            @Value("${app.security.hashing.strength:0}") int strength,
+            @Value("${app.security.hashing.target-time:250ms}") Duration targetTime) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.strength = strength > 0 ? strength : calibrate(targetTime);
+        this.passwordEncoder = delegatingEncoder(new BCryptPasswordEncoder(this.strength));
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("password-hash-"),
+                new ThreadPoolExecutor.AbortPolicy());
+
+        Gauge.builder("password.hashing.queue.depth", executor, pool -> pool.getQueue().size())
+                .description("Password hashes waiting for a hashing thread")
+                .register(meterRegistry);
+        Gauge.builder("password.hashing.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Password hashes currently running")
+                .register(meterRegistry);
+        Gauge.builder("password.hashing.strength", this, service -> service.strength)
+                .description("BCrypt cost used for new hashes")
+                .register(meterRegistry);
+        this.encodeTimer = Timer.builder("password.hashing.duration").tag("operation", "encode")
+                .register(meterRegistry);
+        this.matchesTimer = Timer.builder("password.hashing.duration").tag("operation", "matches")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("password.hashing.rejected")
+                .description("Hashes refused because the queue was full")
+                .register(meterRegistry);
+        log.info("Password hashing uses BCrypt cost {} on {} threads", this.strength, poolSize);
+    }
+
+    public int getStrength() {
+        return strength;
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return await(() -> encodeTimer.record(() -> passwordEncoder.encode(rawPassword)));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return await(() -> matchesTimer.record(() -> passwordEncoder.matches(rawPassword, encodedPassword)));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        // Only parses the hash prefix, so it runs on the caller's thread
+        return passwordEncoder.upgradeEncoding(encodedPassword);
+    }
+
+    public CompletableFuture<String> encodeAsync(String rawPassword) {
+        Supplier<String> work = () -> encodeTimer.record(() -> passwordEncoder.encode(rawPassword));
+        try {
+            return CompletableFuture.supplyAsync(work, executor);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            return CompletableFuture.completedFuture(work.get());
+        }
+    }
+
+    private <T> T await(Supplier<T> work) {
+        CompletableFuture<T> result;
+        try {
+            result = CompletableFuture.supplyAsync(work, executor);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new AuthenticationServiceException("Password hashing is busy, please try again", e);
+        }
+        try {
+            return result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    static PasswordEncoder delegatingEncoder(BCryptPasswordEncoder bcrypt) {
+        DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder("bcrypt", Map.of("bcrypt", bcrypt));
+        // Hashes stored before the prefix was introduced are plain BCrypt
+        encoder.setDefaultPasswordEncoderForMatches(bcrypt);
+        return encoder;
+    }
+
+    /**
+     * Picks the highest cost whose hash time stays within the target. Each step of
+     * the cost doubles the work, so the time of the minimum cost is measured once
+     * and the rest is extrapolated.
+     */
+    static int calibrate(Duration targetTime) {
+        BCryptPasswordEncoder probe = new BCryptPasswordEncoder(MIN_STRENGTH);
+        long best = Long.MAX_VALUE;
+        for (int run = 0; run < 3; run++) {
+            long start = System.nanoTime();
+            probe.encode("calibration");
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return strengthFor(best, targetTime);
+    }
+
+    static int strengthFor(long minStrengthNanos, Duration targetTime) {
+        int strength = MIN_STRENGTH;
+        long nanos = Math.max(1, minStrengthNanos);
+        while (strength < MAX_STRENGTH && nanos * 2 <= targetTime.toNanos()) {
+            nanos *= 2;
+            strength++;
+        }
+        return strength;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.student_teacher.security;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.LongSupplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.example.student_teacher.entity.Role;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Bounded in-process cache of resolved accounts keyed by email, backed by Caffeine.
+ * Entries expire a fixed TTL after they were cached, and once the cache is full
+ * Caffeine evicts the entries least likely to be used again.
+ * <p>
+ * Hits, misses, evictions and the size are published as
+ * {@code security.principal.cache.*} meters.
+ */
+@Component
+public class PrincipalCache {
+
+    public record CachedAccount(Long id, Role role, String email, String passwordHash) {
+    }
+
+    private final int maxSize;
+    private final Cache<String, CachedAccount> entries;
+
+    @Autowired
+    public PrincipalCache(@Value("${app.security.principal-cache.max-size:10000}") int maxSize,
+            @Value("${app.security.principal-cache.ttl:5m}") Duration ttl, MeterRegistry meterRegistry) {
+        this(maxSize, ttl, System::nanoTime, meterRegistry);
+    }
+
+    PrincipalCache(int maxSize, Duration ttl, LongSupplier clock, MeterRegistry meterRegistry) {
+        this.maxSize = maxSize;
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(Math.max(maxSize, 0))
+                .expireAfterWrite(ttl)
+                .ticker(clock::getAsLong)
+                // Evict on the calling thread rather than on the common pool
+                .executor(Runnable::run)
+                .recordStats()
+                .build();
+
+        FunctionCounter.builder("security.principal.cache.requests", this, PrincipalCache::getHitCount)
+                .tag("result", "hit")
+                .description("Account lookups answered from the principal cache")
+                .register(meterRegistry);
+        FunctionCounter.builder("security.principal.cache.requests", this, PrincipalCache::getMissCount)
+                .tag("result", "miss")
+                .description("Account lookups that went to the database")
+                .register(meterRegistry);
+        FunctionCounter.builder("security.principal.cache.evictions", this, PrincipalCache::getEvictionCount)
+                .description("Cached accounts dropped because they expired or the cache was full")
+                .register(meterRegistry);
+        Gauge.builder("security.principal.cache.size", this, PrincipalCache::size)
+                .description("Accounts in the principal cache")
+                .register(meterRegistry);
+    }
+
+    public Optional<CachedAccount> get(String email) {
+        return Optional.ofNullable(entries.getIfPresent(email));
+    }
+
+    public void put(CachedAccount account) {
+        if (maxSize <= 0) {
+            return;
+        }
+        entries.put(account.email(), account);
+    }
+
+    public void invalidate(String email) {
+        entries.invalidate(email);
+    }
+
+    /**
+     * Removes the entry for an account identified by role and id, for callers that
+     * do not have the email at hand.
+     */
+    public void invalidate(Role role, Long id) {
+        entries.asMap().values().removeIf(account -> account.role() == role && account.id().equals(id));
+    }
+
+    public void clear() {
+        entries.invalidateAll();
+    }
+
+    public long size() {
+        return entries.estimatedSize();
+    }
+
+    /**
+     * Runs pending expiry and size eviction now instead of on the next cache access.
+     */
+    void cleanUp() {
+        entries.cleanUp();
+    }
+
+    public long getHitCount() { return entries.stats().hitCount(); }
+    public long getMissCount() { return entries.stats().missCount(); }
+    public long getEvictionCount() { return entries.stats().evictionCount(); }
+}
@@ -0,0 +1,23 @@
+package com.example.student_teacher.service;
+
+import java.time.Duration;
+
+/**
+ * Thrown when the enrollment admission queue cannot take another request.
+ * Answered with 429 Too Many Requests and a {@code Retry-After} header.
+ */
+public class AdmissionRejectedException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final transient Duration retryAfter;
+
+    public AdmissionRejectedException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
@@ -0,0 +1,197 @@
+package com.example.student_teacher.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.example.student_teacher.dto.CatalogSnapshot;
+import com.example.student_teacher.dto.CourseSummary;
+import com.example.student_teacher.repository.CourseRepository;
+
+/**
+ * In-memory course catalog shared by the dashboards and the catalog endpoint.
+ * Readers get the current immutable snapshot without locking or querying; writers
+ * copy it, apply one change and publish the copy with the next generation.
+ * The catalog and its {@link CourseSearchIndex} are loaded from the database at
+ * startup and then kept current by {@link CourseService} after each committed
+ * course change.
+ * <p>
+ * Every {@code app.catalog.refresh-interval} the course table is read again and,
+ * if anything differs, published as the next generation with only the changed
+ * courses re-indexed. That picks up changes made by other nodes or SQL scripts and
+ * moves the ETag only when the content changed. Seat counts change with every
+ * enrollment and are deliberately not part of the catalog.
+ */
+@Component
+public class CourseCatalog implements ApplicationRunner {
+
+    public static final int MAX_SEARCH_RESULTS = 50;
+
+    private static final Logger log = LoggerFactory.getLogger(CourseCatalog.class);
+
+    private static final Comparator<CourseSummary> BY_ID = Comparator.comparing(CourseSummary::id);
+
+    private final CourseRepository courseRepo;
+    // Distinguishes generations of this instance from those of an earlier run or another node
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    // A lock rather than synchronized, so a virtual thread reloading from the database does not pin its carrier
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    private volatile CatalogSnapshot snapshot;
+    private volatile CourseSearchIndex searchIndex;
+
+    public CourseCatalog(CourseRepository courseRepo) {
+        this.courseRepo = courseRepo;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        reload();
+    }
+
+    public CatalogSnapshot snapshot() {
+        CatalogSnapshot current = snapshot;
+        return current != null ? current : reload();
+    }
+
+    /**
+     * Entity tag of the current snapshot, quoted for use in ETag headers.
+     */
+    public String etag() {
+        return etag(snapshot());
+    }
+
+    public String etag(CatalogSnapshot catalog) {
+        return "\"" + epoch + "-" + catalog.generation() + "\"";
+    }
+
+    /**
+     * Courses whose title or teacher name matches every word of the query, best first.
+     * The limit is clamped to 1..{@value #MAX_SEARCH_RESULTS}.
+     *
+     * @see CourseSearchIndex#search(String, int)
+     */
+    public List<CourseSummary> search(String query, int limit) {
+        CourseSearchIndex index = searchIndex;
+        if (index == null) {
+            reload();
+            index = searchIndex;
+        }
+        return index.search(query, Math.max(1, Math.min(limit, MAX_SEARCH_RESULTS)));
+    }
+
+    /**
+     * Replaces the catalog and the search index with a fresh read of the course table.
+     */
+    public CatalogSnapshot reload() {
+        writeLock.lock();
+        try {
+            long generation = snapshot == null ? 1 : snapshot.generation() + 1;
+            snapshot = new CatalogSnapshot(generation, List.copyOf(courseRepo.findAllSummaries()));
+            searchIndex = CourseSearchIndex.of(snapshot.courses());
+            return snapshot;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Re-reads the course table and publishes it as the next generation if it differs
+     * from the current snapshot. Only added, changed and removed courses are
+     * re-indexed.
+     *
+     * @return whether a new generation was published
+     */
+    public boolean refreshIfChanged() {
+        writeLock.lock();
+        try {
+            List<CourseSummary> courses = courseRepo.findAllSummaries();
+            if (snapshot == null) {
+                snapshot = new CatalogSnapshot(1, List.copyOf(courses));
+                searchIndex = CourseSearchIndex.of(snapshot.courses());
+                return true;
+            }
+            if (snapshot.courses().equals(courses)) {
+                return false;
+            }
+            Map<Long, CourseSummary> previous = new HashMap<>();
+            snapshot.courses().forEach(course -> previous.put(course.id(), course));
+            for (CourseSummary course : courses) {
+                if (!course.equals(previous.remove(course.id()))) {
+                    searchIndex.add(course);
+                }
+            }
+            previous.keySet().forEach(searchIndex::remove);
+            publish(courses);
+            return true;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Adds the course, or replaces the entry with the same id.
+     */
+    public void courseSaved(CourseSummary course) {
+        writeLock.lock();
+        try {
+            if (snapshot == null) {
+                return; // the first read will load it
+            }
+            List<CourseSummary> courses = new ArrayList<>(snapshot.courses());
+            int index = Collections.binarySearch(courses, course, BY_ID);
+            if (index >= 0) {
+                courses.set(index, course);
+            } else {
+                courses.add(-index - 1, course);
+            }
+            searchIndex.add(course);
+            publish(courses);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public void courseRemoved(Long courseId) {
+        writeLock.lock();
+        try {
+            if (snapshot == null) {
+                return;
+            }
+            List<CourseSummary> courses = new ArrayList<>(snapshot.courses());
+            if (courses.removeIf(course -> course.id().equals(courseId))) {
+                searchIndex.remove(courseId);
+                publish(courses);
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.catalog.refresh-interval:30s}",
+            initialDelayString = "${app.catalog.refresh-interval:30s}")
+    void refresh() {
+        try {
+            if (refreshIfChanged()) {
+                log.debug("Course catalog changed outside this node; now at generation {}", snapshot.generation());
+            }
+        } catch (RuntimeException e) {
+            log.warn("Could not refresh the course catalog", e);
+        }
+    }
+
+    private void publish(List<CourseSummary> courses) {
+        snapshot = new CatalogSnapshot(snapshot.generation() + 1, List.copyOf(courses));
+    }
+}
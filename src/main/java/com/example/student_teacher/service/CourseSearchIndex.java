@@ -0,0 +1,372 @@
+package com.example.student_teacher.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+import com.example.student_teacher.dto.CourseSummary;
+
+/**
+ * Inverted index over course titles and teacher names, used for course search and
+ * typeahead. Each token maps to the sorted postings of the courses that contain it,
+ * and the tokens are kept in sorted order so a prefix is one range scan.
+ * <p>
+ * Every query token must match a title or teacher token, either exactly or as a
+ * prefix. Matches rank title before teacher and exact before prefix; titles that
+ * start with the first query token and shorter titles come first among equals.
+ * <p>
+ * A posting packs the course id with what ranking needs to know about the token in
+ * that course (see {@link #posting}), so queries are scored from postings alone:
+ * the most selective query word supplies the candidates, the other words are
+ * intersected with them, and only the courses returned are looked up.
+ * <p>
+ * At most {@value #MAX_CANDIDATES} courses are scored per query, and they are taken
+ * before ranking: first the courses with the exact word, then the tokens it prefixes
+ * in alphabetical order, each in id order. A query word that prefixes more courses
+ * than that can therefore miss a better-ranked course behind the cap; exact matches
+ * are never lost to it, and a longer query narrows the range again.
+ * <p>
+ * Readers do not lock. Writers are expected to be serialized by the caller
+ * ({@link CourseCatalog} holds its write lock) and only copy the posting lists of
+ * the tokens they touch, so one course change costs a few small array copies.
+ */
+public class CourseSearchIndex {
+
+    /**
+     * Upper bound on the courses scored for one query, which keeps one-letter prefixes
+     * cheap. Applied before ranking, see the class comment.
+     */
+    static final int MAX_CANDIDATES = 5_000;
+    /** Query tokens beyond this are ignored. */
+    static final int MAX_QUERY_TOKENS = 8;
+
+    // Posting bits below the course id
+    private static final int IN_TITLE = 1;
+    private static final int FIRST_IN_TITLE = 1 << 1;
+    private static final int LENGTH_SHIFT = 2;
+    private static final int MAX_LENGTH = 15;
+    private static final int ID_SHIFT = 6;
+
+    // Candidate bits: a posting shifted left by one, plus whether the token equals the query word
+    private static final int EXACT = 1;
+    // Flag next to a match score in addTermScores
+    private static final int FIRST_MATCH = 1 << 3;
+
+    private static final long[] NO_POSTINGS = new long[0];
+
+    private record Entry(CourseSummary course, String[] titleTokens, String[] sortedTitle, String[] sortedTeacher) {
+
+        static Entry of(CourseSummary course) {
+            String[] title = SearchIndexes.tokenize(course.title());
+            String[] teacher = SearchIndexes.tokenize(course.teacherName());
+            return new Entry(course, title, sorted(title), sorted(teacher));
+        }
+
+        Set<String> distinctTokens() {
+            Set<String> tokens = new LinkedHashSet<>(Arrays.asList(sortedTitle));
+            tokens.addAll(Arrays.asList(sortedTeacher));
+            return tokens;
+        }
+    }
+
+    private final ConcurrentSkipListMap<String, long[]> postings = new ConcurrentSkipListMap<>();
+    private final ConcurrentHashMap<Long, Entry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * Builds an index over the given courses in one pass.
+     */
+    public static CourseSearchIndex of(Collection<CourseSummary> courses) {
+        CourseSearchIndex index = new CourseSearchIndex();
+        Map<String, long[]> building = new HashMap<>();
+        Map<String, Integer> sizes = new HashMap<>();
+        for (CourseSummary course : courses) {
+            Entry entry = Entry.of(course);
+            index.entries.put(course.id(), entry);
+            for (String token : entry.distinctTokens()) {
+                int size = sizes.getOrDefault(token, 0);
+                long[] list = building.get(token);
+                if (list == null || list.length == size) {
+                    list = Arrays.copyOf(list == null ? NO_POSTINGS : list, Math.max(4, size * 2));
+                    building.put(token, list);
+                }
+                list[size] = posting(course.id(), entry, token);
+                sizes.put(token, size + 1);
+            }
+        }
+        building.forEach((token, list) -> {
+            long[] trimmed = Arrays.copyOf(list, sizes.get(token));
+            Arrays.sort(trimmed);
+            index.postings.put(token, trimmed);
+        });
+        return index;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Adds the course, or replaces the entry with the same id.
+     */
+    public void add(CourseSummary course) {
+        remove(course.id());
+        Entry entry = Entry.of(course);
+        // Publish the entry before its postings, so a reader that finds the id can resolve it
+        entries.put(course.id(), entry);
+        for (String token : entry.distinctTokens()) {
+            long posting = posting(course.id(), entry, token);
+            postings.merge(token, new long[] {posting}, (list, ignored) -> SearchIndexes.insert(list, posting));
+        }
+    }
+
+    public void remove(Long courseId) {
+        Entry entry = entries.remove(courseId);
+        if (entry == null) {
+            return;
+        }
+        for (String token : entry.distinctTokens()) {
+            long posting = posting(courseId, entry, token);
+            postings.computeIfPresent(token, (ignored, list) -> SearchIndexes.delete(list, posting));
+        }
+    }
+
+    /**
+     * Returns up to {@code limit} courses matching every token of the query, best first.
+     */
+    public List<CourseSummary> search(String query, int limit) {
+        String[] terms = queryTerms(query);
+        if (terms.length == 0 || limit <= 0) {
+            return List.of();
+        }
+        String selective = mostSelective(terms);
+        long[] candidates = candidates(selective);
+        double[] scores = new double[candidates.length];
+        for (int i = 0; i < candidates.length; i++) {
+            long candidate = candidates[i];
+            scores[i] = matchScore(candidate) + 1.0 / (1 + ((candidate >>> (LENGTH_SHIFT + 1)) & MAX_LENGTH));
+            if (selective.equals(terms[0]) && (candidate & FIRST_IN_TITLE << 1) != 0) {
+                scores[i] += 1;
+            }
+        }
+        for (String term : terms) {
+            if (!term.equals(selective)) {
+                addTermScores(term, term.equals(terms[0]), candidates, scores);
+            }
+        }
+        TopHits top = new TopHits(limit);
+        for (int i = 0; i < candidates.length; i++) {
+            if (scores[i] > 0) {
+                top.offer(scores[i], candidates[i] >>> (ID_SHIFT + 1));
+            }
+        }
+        List<CourseSummary> courses = new ArrayList<>(top.size());
+        for (long id : top.idsBestFirst()) {
+            Entry entry = entries.get(id);
+            if (entry != null) {
+                courses.add(entry.course());
+            }
+        }
+        return courses;
+    }
+
+    private static String[] queryTerms(String query) {
+        return Arrays.stream(SearchIndexes.tokenize(query)).distinct().limit(MAX_QUERY_TOKENS).toArray(String[]::new);
+    }
+
+    /**
+     * The posting of a token in a course: the id, then the number of title tokens
+     * (capped at {@value #MAX_LENGTH}), whether the token is the first title token
+     * and whether it is in the title at all.
+     */
+    private static long posting(long id, Entry entry, String token) {
+        String[] title = entry.titleTokens();
+        long posting = id << ID_SHIFT | (long) Math.min(title.length, MAX_LENGTH) << LENGTH_SHIFT;
+        if (title.length > 0 && title[0].equals(token)) {
+            posting |= FIRST_IN_TITLE;
+        }
+        if (Arrays.binarySearch(entry.sortedTitle(), token) >= 0) {
+            posting |= IN_TITLE;
+        }
+        return posting;
+    }
+
+    /**
+     * 4 for an exact title token, 3 for a title prefix, 2 for an exact teacher token
+     * and 1 for a teacher prefix.
+     */
+    private static int matchScore(long candidate) {
+        return (int) (candidate & (IN_TITLE << 1 | EXACT)) + 1;
+    }
+
+    /**
+     * Adds the best match of the term to each candidate's score, plus the first-token
+     * bonus when the term is the first query word, and sets the score of candidates
+     * without a match to 0.
+     */
+    private void addTermScores(String term, boolean firstTerm, long[] candidates, double[] scores) {
+        int[] best = new int[candidates.length];
+        for (Map.Entry<String, long[]> token : withPrefix(term).entrySet()) {
+            long exact = token.getKey().length() == term.length() ? EXACT : 0;
+            long[] list = token.getValue();
+            // Both arrays are sorted by id: walk the shorter one and seek in the other
+            if (list.length < candidates.length) {
+                int from = 0;
+                for (int j = 0; j < list.length && from < candidates.length; j++) {
+                    long id = list[j] >>> ID_SHIFT;
+                    from = SearchIndexes.seek(candidates, from, id << (ID_SHIFT + 1));
+                    if (from < candidates.length && candidates[from] >>> (ID_SHIFT + 1) == id) {
+                        best[from] = merge(best[from], list[j] << 1 | exact, firstTerm);
+                    }
+                }
+            } else {
+                int from = 0;
+                for (int i = 0; i < candidates.length && from < list.length; i++) {
+                    long id = candidates[i] >>> (ID_SHIFT + 1);
+                    from = SearchIndexes.seek(list, from, id << ID_SHIFT);
+                    if (from < list.length && list[from] >>> ID_SHIFT == id) {
+                        best[i] = merge(best[i], list[from] << 1 | exact, firstTerm);
+                    }
+                }
+            }
+        }
+        for (int i = 0; i < candidates.length; i++) {
+            if (best[i] == 0) {
+                scores[i] = 0;
+            } else if (scores[i] > 0) {
+                scores[i] += (best[i] & ~FIRST_MATCH) + ((best[i] & FIRST_MATCH) != 0 ? 1 : 0);
+            }
+        }
+    }
+
+    /**
+     * Keeps the better match score of a candidate and remembers a first-token match.
+     */
+    private static int merge(int best, long candidate, boolean firstTerm) {
+        int first = firstTerm && (candidate & FIRST_IN_TITLE << 1) != 0 ? FIRST_MATCH : 0;
+        return Math.max(best & ~FIRST_MATCH, matchScore(candidate)) | best & FIRST_MATCH | first;
+    }
+
+    private NavigableMap<String, long[]> withPrefix(String term) {
+        return postings.subMap(term, true, term + Character.MAX_VALUE, false);
+    }
+
+    /**
+     * The term whose prefix range holds the fewest postings, counted up to the candidate cap.
+     */
+    private String mostSelective(String[] terms) {
+        String best = terms[0];
+        long bestCount = Long.MAX_VALUE;
+        for (String term : terms) {
+            long count = 0;
+            for (long[] list : withPrefix(term).values()) {
+                count += list.length;
+                if (count >= MAX_CANDIDATES) {
+                    break;
+                }
+            }
+            if (count < bestCount) {
+                best = term;
+                bestCount = count;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * One candidate per course with a token starting with the term: its posting shifted
+     * left by one with {@link #EXACT} set when the token equals the term. When several
+     * tokens of a course match, the best match is kept and the first-token flag is
+     * merged. The exact token sorts first in the range, so its courses are always
+     * among the candidates.
+     */
+    private long[] candidates(String term) {
+        long[] buffer = new long[16];
+        int size = 0;
+        for (Map.Entry<String, long[]> token : withPrefix(term).entrySet()) {
+            long exact = token.getKey().length() == term.length() ? EXACT : 0;
+            long[] list = token.getValue();
+            int take = Math.min(list.length, MAX_CANDIDATES - size);
+            if (size + take > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(size + take, buffer.length * 2));
+            }
+            for (int i = 0; i < take; i++) {
+                buffer[size++] = list[i] << 1 | exact;
+            }
+            if (size >= MAX_CANDIDATES) {
+                break;
+            }
+        }
+        Arrays.sort(buffer, 0, size);
+        // Equal ids are adjacent after sorting; merge each run into one candidate
+        long matchBits = IN_TITLE << 1 | EXACT;
+        int distinct = 0;
+        long first = 0;
+        long match = 0;
+        for (int i = 0; i < size; i++) {
+            first |= buffer[i] & FIRST_IN_TITLE << 1;
+            match = Math.max(match, buffer[i] & matchBits);
+            if (i + 1 == size || buffer[i] >>> (ID_SHIFT + 1) != buffer[i + 1] >>> (ID_SHIFT + 1)) {
+                buffer[distinct++] = buffer[i] & ~(FIRST_IN_TITLE << 1 | matchBits) | first | match;
+                first = 0;
+                match = 0;
+            }
+        }
+        return Arrays.copyOf(buffer, distinct);
+    }
+
+    private static String[] sorted(String[] tokens) {
+        String[] copy = Arrays.stream(tokens).distinct().toArray(String[]::new);
+        Arrays.sort(copy);
+        return copy;
+    }
+
+    /**
+     * The best {@code limit} hits by score, then by lower id, kept sorted in two
+     * small arrays so offering a hit allocates nothing.
+     */
+    private static final class TopHits {
+
+        private final double[] scores;
+        private final long[] ids;
+        private int size;
+
+        TopHits(int limit) {
+            scores = new double[limit];
+            ids = new long[limit];
+        }
+
+        void offer(double score, long id) {
+            if (size == scores.length && !better(score, id, size - 1)) {
+                return;
+            }
+            int at = size == scores.length ? size - 1 : size++;
+            while (at > 0 && better(score, id, at - 1)) {
+                scores[at] = scores[at - 1];
+                ids[at] = ids[at - 1];
+                at--;
+            }
+            scores[at] = score;
+            ids[at] = id;
+        }
+
+        private boolean better(double score, long id, int index) {
+            return score > scores[index] || score == scores[index] && id < ids[index];
+        }
+
+        int size() {
+            return size;
+        }
+
+        long[] idsBestFirst() {
+            return Arrays.copyOf(ids, size);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.student_teacher.service;
+
+import java.util.Optional;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.example.student_teacher.dto.CourseSummary;
+import com.example.student_teacher.entity.Course;
+import com.example.student_teacher.event.DomainEvent.CourseDeleted;
+import com.example.student_teacher.event.EventOutbox;
+import com.example.student_teacher.repository.CourseRepository;
+import com.example.student_teacher.repository.StudentRepository;
+import com.example.student_teacher.repository.TeacherRepository;
+
+import jakarta.persistence.EntityManagerFactory;
+
+@Service
+public class CourseService {
+
+    private final CourseRepository courseRepo;
+    private final StudentRepository studentRepo;
+    private final TeacherRepository teacherRepo;
+    private final EntityManagerFactory entityManagerFactory;
+    private final CourseCatalog courseCatalog;
+    private final EventOutbox eventOutbox;
+
+    public CourseService(CourseRepository courseRepo, StudentRepository studentRepo,
+            TeacherRepository teacherRepo, EntityManagerFactory entityManagerFactory,
+            CourseCatalog courseCatalog, EventOutbox eventOutbox) {
+        this.courseRepo = courseRepo;
+        this.studentRepo = studentRepo;
+        this.teacherRepo = teacherRepo;
+        this.entityManagerFactory = entityManagerFactory;
+        this.courseCatalog = courseCatalog;
+        this.eventOutbox = eventOutbox;
+    }
+
+    /**
+     * Saves a new course for the given teacher.
+     *
+     * @return the saved course, or empty if no teacher has that email
+     */
+    @Transactional
+    public Optional<Course> addCourse(String teacherEmail, Course course) {
+        return teacherRepo.findByEmail(teacherEmail).map(teacher -> {
+            course.setTeacher(teacher);
+            Course saved = courseRepo.save(course);
+            CourseSummary summary = new CourseSummary(saved.getId(), saved.getTitle(), saved.getCredit(),
+                    teacher.getName());
+            afterCommit(saved.getId(), () -> courseCatalog.courseSaved(summary));
+            return saved;
+        });
+    }
+
+    /**
+     * Deletes a course owned by the given teacher.
+     * Enrollments are removed with one delete on student_courses, so the number of
+     * statements stays the same no matter how many students exist.
+     *
+     * @return true if the course existed and belonged to the teacher
+     */
+    @Transactional
+    public boolean deleteCourse(Long courseId, String teacherEmail) {
+        Optional<Course> course = courseRepo.findByIdAndTeacherEmail(courseId, teacherEmail);
+        if (course.isEmpty()) {
+            return false;
+        }
+        studentRepo.deleteEnrollmentsByCourseId(courseId);
+        courseRepo.delete(course.get());
+        afterCommit(courseId, () -> courseCatalog.courseRemoved(courseId));
+        eventOutbox.record(new CourseDeleted(courseId));
+        return true;
+    }
+
+    /**
+     * Once the change is committed, drops the course entry from the second-level cache,
+     * then applies the change to the in-memory catalog. Nothing is touched if the
+     * transaction rolls back.
+     */
+    private void afterCommit(Long courseId, Runnable catalogUpdate) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                entityManagerFactory.getCache().evict(Course.class, courseId);
+                catalogUpdate.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,175 @@
+package com.example.student_teacher.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import com.example.student_teacher.dto.EnrollmentRequest;
+import com.example.student_teacher.service.EnrollmentService.Outcome;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Admission control in front of the enrollment endpoints. Requests wait in a
+ * bounded FIFO queue and a fixed set of workers takes them off in batches, so a
+ * registration burst uses at most one connection per worker and is written with
+ * {@link EnrollmentService#enrollAll} instead of one transaction per request.
+ * <p>
+ * Each student may have only {@code app.enrollment.admission.per-student-limit}
+ * requests waiting, so one client retrying in a loop cannot fill the queue ahead
+ * of everyone else. A request that finds the queue full or its student at the
+ * limit is rejected with {@link AdmissionRejectedException}.
+ */
+@Service
+public class EnrollmentAdmission {
+
+    private static final Logger log = LoggerFactory.getLogger(EnrollmentAdmission.class);
+
+    private record Ticket(EnrollmentRequest request, CompletableFuture<Outcome> result, long queuedAt) {
+    }
+
+    private final EnrollmentService enrollmentService;
+    private final BlockingQueue<Ticket> queue;
+    private final ConcurrentHashMap<Long, Integer> pendingByStudent = new ConcurrentHashMap<>();
+    private final int perStudentLimit;
+    private final int batchSize;
+    private final Duration retryAfter;
+    private final List<Thread> workers = new ArrayList<>();
+
+    private final Timer waitTimer;
+    private final DistributionSummary batchSizes;
+    private final Counter rejectedQueueFull;
+    private final Counter rejectedPerStudent;
+
+    public EnrollmentAdmission(EnrollmentService enrollmentService, MeterRegistry meterRegistry,
+            @Value("${app.enrollment.admission.workers:4}") int workerCount,
+            @Value("${app.enrollment.admission.queue-capacity:2000}") int queueCapacity,
+            @Value("${app.enrollment.admission.batch-size:50}") int batchSize,
+            @Value("${app.enrollment.admission.per-student-limit:2}") int perStudentLimit,
+            @Value("${app.enrollment.admission.retry-after:2s}") Duration retryAfter) {
+        this.enrollmentService = enrollmentService;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity, true);
+        this.perStudentLimit = perStudentLimit;
+        this.batchSize = batchSize;
+        this.retryAfter = retryAfter;
+
+        Gauge.builder("enrollment.admission.queue.depth", queue, BlockingQueue::size)
+                .description("Enrollment requests waiting for a worker")
+                .register(meterRegistry);
+        this.waitTimer = Timer.builder("enrollment.admission.wait")
+                .description("Time from admission until a worker picks the request up")
+                .register(meterRegistry);
+        this.batchSizes = DistributionSummary.builder("enrollment.admission.batch.size")
+                .description("Requests written per batch")
+                .register(meterRegistry);
+        this.rejectedQueueFull = Counter.builder("enrollment.admission.rejected").tag("reason", "queue_full")
+                .register(meterRegistry);
+        this.rejectedPerStudent = Counter.builder("enrollment.admission.rejected").tag("reason", "per_student")
+                .register(meterRegistry);
+
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("enrollment-admission-");
+        threadFactory.setDaemon(true);
+        for (int i = 0; i < workerCount; i++) {
+            Thread worker = threadFactory.newThread(this::work);
+            workers.add(worker);
+            worker.start();
+        }
+    }
+
+    /**
+     * Queues an enrollment.
+     *
+     * @return the outcome once a worker has written the batch holding this request
+     * @throws AdmissionRejectedException if the queue is full or the student already
+     *         has the maximum number of requests waiting
+     */
+    public CompletableFuture<Outcome> submit(Long studentId, Long courseId) {
+        if (!acquire(studentId)) {
+            rejectedPerStudent.increment();
+            throw new AdmissionRejectedException("Too many enrollment requests waiting for this student", retryAfter);
+        }
+        Ticket ticket = new Ticket(new EnrollmentRequest(studentId, courseId), new CompletableFuture<>(),
+                System.nanoTime());
+        if (!queue.offer(ticket)) {
+            release(studentId);
+            rejectedQueueFull.increment();
+            throw new AdmissionRejectedException("Enrollment is busy, please retry", retryAfter);
+        }
+        return ticket.result();
+    }
+
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    private void work() {
+        List<Ticket> batch = new ArrayList<>(batchSize);
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            queue.drainTo(batch, batchSize - 1);
+            process(batch);
+            batch.clear();
+        }
+    }
+
+    private void process(List<Ticket> batch) {
+        long now = System.nanoTime();
+        batch.forEach(ticket -> waitTimer.record(Duration.ofNanos(now - ticket.queuedAt())));
+        batchSizes.record(batch.size());
+        try {
+            List<Outcome> outcomes = enrollmentService.enrollAll(batch.stream().map(Ticket::request).toList());
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).result().complete(outcomes.get(i));
+            }
+        } catch (RuntimeException e) {
+            log.warn("Enrollment batch of {} requests failed", batch.size(), e);
+            batch.forEach(ticket -> ticket.result().completeExceptionally(e));
+        } finally {
+            batch.forEach(ticket -> release(ticket.request().studentId()));
+        }
+    }
+
+    private boolean acquire(Long studentId) {
+        boolean[] admitted = new boolean[1];
+        pendingByStudent.compute(studentId, (id, pending) -> {
+            int current = pending == null ? 0 : pending;
+            admitted[0] = current < perStudentLimit;
+            return admitted[0] ? current + 1 : pending;
+        });
+        return admitted[0];
+    }
+
+    private void release(Long studentId) {
+        pendingByStudent.computeIfPresent(studentId, (id, pending) -> pending <= 1 ? null : pending - 1);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        workers.forEach(Thread::interrupt);
+        Ticket ticket;
+        while ((ticket = queue.poll()) != null) {
+            ticket.result().completeExceptionally(
+                    new AdmissionRejectedException("Enrollment is shutting down", retryAfter));
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.student_teacher.service;
+
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.student_teacher.entity.Course;
+import com.example.student_teacher.repository.CourseRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Keeps course.enrolled_count equal to the number of student_courses rows of each
+ * course. The enrollment, drop and deletion paths maintain the count as they write;
+ * this job repairs drift from anything that bypasses them, such as SQL scripts or
+ * rows written through {@code Student.courses}.
+ * <p>
+ * Runs at startup ({@code app.enrollment.recount-on-startup}) and then every
+ * {@code app.enrollment.reconcile-interval}. Courses that look off are found with
+ * one unlocked read; each one is then recounted in its own short transaction that
+ * holds the course row lock, the lock enrollments take to change the count.
+ */
+@Service
+public class EnrollmentCountReconciler implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(EnrollmentCountReconciler.class);
+
+    private final CourseRepository courseRepo;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+    private final Counter corrections;
+    private final boolean recountOnStartup;
+
+    public EnrollmentCountReconciler(CourseRepository courseRepo, TransactionTemplate transactionTemplate,
+            EntityManagerFactory entityManagerFactory, MeterRegistry meterRegistry,
+            @Value("${app.enrollment.recount-on-startup:true}") boolean recountOnStartup) {
+        this.courseRepo = courseRepo;
+        this.transactionTemplate = transactionTemplate;
+        this.entityManagerFactory = entityManagerFactory;
+        this.corrections = Counter.builder("enrollment.count.corrections")
+                .description("Courses whose enrolled count was found off and recomputed")
+                .register(meterRegistry);
+        this.recountOnStartup = recountOnStartup;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (recountOnStartup) {
+            int corrected = reconcile();
+            if (corrected > 0) {
+                log.info("Corrected the enrolled count of {} courses", corrected);
+            }
+        }
+    }
+
+    /**
+     * Recomputes the enrolled count of every course whose count is off.
+     *
+     * @return the number of courses corrected
+     */
+    public int reconcile() {
+        List<Long> suspects = courseRepo.findIdsWithEnrollmentDrift();
+        int corrected = 0;
+        for (Long courseId : suspects) {
+            Integer updated = transactionTemplate.execute(status -> courseRepo.lockById(courseId).isPresent()
+                    ? courseRepo.recountEnrollments(courseId) : 0);
+            if (updated != null && updated > 0) {
+                entityManagerFactory.getCache().evict(Course.class, courseId);
+                corrected++;
+            }
+        }
+        corrections.increment(corrected);
+        return corrected;
+    }
+
+    @Scheduled(fixedDelayString = "${app.enrollment.reconcile-interval:1h}",
+            initialDelayString = "${app.enrollment.reconcile-interval:1h}")
+    void reconcileQuietly() {
+        try {
+            int corrected = reconcile();
+            if (corrected > 0) {
+                // The write paths keep the count exact, so drift at runtime means something bypassed them
+                log.warn("Corrected the enrolled count of {} courses", corrected);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Could not reconcile course enrolled counts", e);
+        }
+    }
+}
@@ -0,0 +1,270 @@
+package com.example.student_teacher.service;
+
+import java.security.Principal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.student_teacher.dto.CourseSeats;
+import com.example.student_teacher.dto.EnrollmentRequest;
+import com.example.student_teacher.entity.Course;
+import com.example.student_teacher.event.DomainEvent.EnrollmentCreated;
+import com.example.student_teacher.event.DomainEvent.EnrollmentDropped;
+import com.example.student_teacher.event.DomainEvent.StudentDeleted;
+import com.example.student_teacher.event.EventOutbox;
+import com.example.student_teacher.entity.Role;
+import com.example.student_teacher.repository.CourseRepository;
+import com.example.student_teacher.repository.StudentRepository;
+import com.example.student_teacher.security.AccountPrincipal;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Enrolls and drops students by writing single student_courses rows,
+ * without loading the Student or Course entities.
+ * <p>
+ * Seats are counted in course.enrolled_count. Each enrollment inserts its row and
+ * then takes a seat with one conditional update in the same transaction; if the
+ * course is full the row is deleted again. No table is locked: concurrent
+ * enrollments in the same course only queue on that course's row, and only for
+ * the last statement of their transaction. Drops and student deletion give the
+ * seat back in the transaction that deletes the row. Every change is recorded in
+ * the {@link EventOutbox} in the same transaction.
+ */
+@Service
+public class EnrollmentService {
+
+    public enum Outcome {
+        ENROLLED,
+        ALREADY_ENROLLED,
+        COURSE_FULL,
+        NOT_FOUND
+    }
+
+    // Same statements as StudentRepository.insertEnrollment and deleteEnrollment, sent as JDBC batches
+    private static final String INSERT_ENROLLMENT = """
+            INSERT INTO student_courses (student_id, course_id)
+            SELECT s.id, c.id FROM student s, course c
+            WHERE s.id = ? AND c.id = ?
+              AND NOT EXISTS (SELECT 1 FROM student_courses sc WHERE sc.student_id = ? AND sc.course_id = ?)
+            """;
+    private static final String DELETE_ENROLLMENT =
+            "DELETE FROM student_courses WHERE student_id = ? AND course_id = ?";
+    private static final String ADD_SEATS =
+            "UPDATE course SET enrolled_count = enrolled_count + ? WHERE id = ?";
+
+    private final StudentRepository studentRepo;
+    private final CourseRepository courseRepo;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+    private final JdbcTemplate jdbcTemplate;
+    private final EventOutbox eventOutbox;
+
+    public EnrollmentService(StudentRepository studentRepo, CourseRepository courseRepo,
+            TransactionTemplate transactionTemplate, EntityManagerFactory entityManagerFactory,
+            JdbcTemplate jdbcTemplate, EventOutbox eventOutbox) {
+        this.studentRepo = studentRepo;
+        this.courseRepo = courseRepo;
+        this.transactionTemplate = transactionTemplate;
+        this.entityManagerFactory = entityManagerFactory;
+        this.jdbcTemplate = jdbcTemplate;
+        this.eventOutbox = eventOutbox;
+    }
+
+    /**
+     * Returns the id of the logged-in student. The id is read from the authenticated
+     * principal when available and only falls back to an id-only query otherwise.
+     */
+    public Optional<Long> resolveStudentId(Principal principal) {
+        if (principal instanceof Authentication auth
+                && auth.getPrincipal() instanceof AccountPrincipal account
+                && account.getRole() == Role.STUDENT) {
+            return Optional.of(account.getId());
+        }
+        return studentRepo.findIdByEmail(principal.getName());
+    }
+
+    /**
+     * Enrolls the student if the course has a free seat. Returns NOT_FOUND when the
+     * course or the student does not exist.
+     */
+    public Outcome enroll(Long studentId, Long courseId) {
+        try {
+            return transactionTemplate.execute(status -> {
+                if (studentRepo.insertEnrollment(studentId, courseId) == 0) {
+                    // Nothing inserted: the row exists already, or the course or student does not
+                    return courseRepo.existsById(courseId) && studentRepo.existsById(studentId)
+                            ? Outcome.ALREADY_ENROLLED : Outcome.NOT_FOUND;
+                }
+                if (courseRepo.reserveSeat(courseId) == 0) {
+                    // Undone by hand rather than by rollback, which would also undo a caller's transaction
+                    studentRepo.deleteEnrollment(studentId, courseId);
+                    return Outcome.COURSE_FULL;
+                }
+                evictAfterCommit(courseId);
+                eventOutbox.record(new EnrollmentCreated(studentId, courseId));
+                return Outcome.ENROLLED;
+            });
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent request inserted the same row first
+            return Outcome.ALREADY_ENROLLED;
+        }
+    }
+
+    /**
+     * Enrolls a batch of requests in one transaction with grouped writes:
+     * <ol>
+     * <li>the course rows are locked with one statement, in id order, and their
+     * seat counts read,</li>
+     * <li>all enrollment rows are inserted in one JDBC batch,</li>
+     * <li>as many seats are granted per course as are free, in request order,</li>
+     * <li>rows that got no seat are deleted in one more batch.</li>
+     * </ol>
+     * Every course lock is taken before any row referencing a course is inserted,
+     * and in the same order by every batch, so batches never wait on each other in
+     * a cycle. A single {@link #enroll} in the same course waits for the batch at
+     * its seat update; its insert only takes the foreign key share lock, which does
+     * not conflict with the lock taken here.
+     * <p>
+     * If the batch fails, e.g. on a row inserted concurrently by another request,
+     * each request is retried on its own with {@link #enroll}.
+     *
+     * @return one outcome per request, in request order
+     */
+    public List<Outcome> enrollAll(List<EnrollmentRequest> requests) {
+        try {
+            return transactionTemplate.execute(status -> enrollBatch(requests));
+        } catch (DataAccessException e) {
+            return requests.stream().map(request -> enroll(request.studentId(), request.courseId())).toList();
+        }
+    }
+
+    private List<Outcome> enrollBatch(List<EnrollmentRequest> requests) {
+        Map<Long, List<Integer>> byCourse = new TreeMap<>();
+        for (int i = 0; i < requests.size(); i++) {
+            byCourse.computeIfAbsent(requests.get(i).courseId(), id -> new ArrayList<>()).add(i);
+        }
+        Map<Long, CourseSeats> seats = courseRepo.lockSeats(byCourse.keySet()).stream()
+                .collect(Collectors.toMap(CourseSeats::id, Function.identity()));
+
+        int[] inserted = jdbcTemplate.batchUpdate(INSERT_ENROLLMENT, requests, requests.size(), (ps, request) -> {
+            ps.setLong(1, request.studentId());
+            ps.setLong(2, request.courseId());
+            ps.setLong(3, request.studentId());
+            ps.setLong(4, request.courseId());
+        })[0];
+        // A row is not inserted when it exists already or the student is gone; one query tells them apart
+        List<Long> notInserted = new ArrayList<>();
+        for (int i = 0; i < requests.size(); i++) {
+            if (inserted[i] == 0 && seats.containsKey(requests.get(i).courseId())) {
+                notInserted.add(requests.get(i).studentId());
+            }
+        }
+        Set<Long> students = notInserted.isEmpty() ? Set.of() : studentRepo.findExistingIds(notInserted);
+
+        Outcome[] outcomes = new Outcome[requests.size()];
+        List<EnrollmentRequest> unseated = new ArrayList<>();
+        byCourse.forEach((courseId, indexes) -> {
+            CourseSeats course = seats.get(courseId);
+            if (course == null) {
+                indexes.forEach(i -> outcomes[i] = Outcome.NOT_FOUND);
+                return;
+            }
+            int free = course.capacity() == null ? Integer.MAX_VALUE : course.capacity() - course.enrolledCount();
+            int granted = 0;
+            for (int i : indexes) {
+                if (inserted[i] == 0) {
+                    boolean studentExists = students.contains(requests.get(i).studentId());
+                    outcomes[i] = studentExists ? Outcome.ALREADY_ENROLLED : Outcome.NOT_FOUND;
+                } else if (granted < free) {
+                    outcomes[i] = Outcome.ENROLLED;
+                    eventOutbox.record(new EnrollmentCreated(requests.get(i).studentId(), courseId));
+                    granted++;
+                } else {
+                    outcomes[i] = Outcome.COURSE_FULL;
+                    unseated.add(requests.get(i));
+                }
+            }
+            if (granted > 0) {
+                jdbcTemplate.update(ADD_SEATS, granted, courseId);
+                evictAfterCommit(courseId);
+            }
+        });
+
+        if (!unseated.isEmpty()) {
+            jdbcTemplate.batchUpdate(DELETE_ENROLLMENT, unseated, unseated.size(), (ps, request) -> {
+                ps.setLong(1, request.studentId());
+                ps.setLong(2, request.courseId());
+            });
+        }
+        return List.of(outcomes);
+    }
+
+    /**
+     * @return true if an enrollment was removed
+     */
+    public boolean drop(Long studentId, Long courseId) {
+        return Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+            if (studentRepo.deleteEnrollment(studentId, courseId) == 0) {
+                return false;
+            }
+            courseRepo.releaseSeat(courseId);
+            evictAfterCommit(courseId);
+            eventOutbox.record(new EnrollmentDropped(studentId, courseId));
+            return true;
+        }));
+    }
+
+    /**
+     * Deletes a student, first dropping each of their enrollments the way
+     * {@link #drop} does so every course gets its seat back, all in one transaction.
+     * Courses are visited in id order, the order {@link #enrollAll} locks them in.
+     *
+     * @return false if no student has that id
+     */
+    public boolean deleteStudent(Long studentId) {
+        return Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+            if (!studentRepo.existsById(studentId)) {
+                return false;
+            }
+            for (Long courseId : studentRepo.findEnrolledCourseIds(studentId)) {
+                // A concurrent drop may have deleted the row already and released the seat itself
+                if (studentRepo.deleteEnrollment(studentId, courseId) > 0) {
+                    courseRepo.releaseSeat(courseId);
+                    evictAfterCommit(courseId);
+                    eventOutbox.record(new EnrollmentDropped(studentId, courseId));
+                }
+            }
+            studentRepo.deleteById(studentId);
+            eventOutbox.record(new StudentDeleted(studentId));
+            return true;
+        }));
+    }
+
+    /**
+     * The seat count is changed with SQL, so the cached Course entry is dropped
+     * once the change is committed.
+     */
+    private void evictAfterCommit(Long courseId) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                entityManagerFactory.getCache().evict(Course.class, courseId);
+            }
+        });
+    }
+}
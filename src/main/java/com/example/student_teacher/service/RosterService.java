@@ -0,0 +1,141 @@
+package com.example.student_teacher.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.student_teacher.dto.StudentPage;
+import com.example.student_teacher.dto.StudentSummary;
+import com.example.student_teacher.repository.CourseRepository;
+import com.example.student_teacher.repository.StudentRepository;
+
+import tools.jackson.databind.ObjectMapper;
+
+/**
+ * Lists students as lean summaries, either one keyset page at a time or as a
+ * stream written straight to the response, so memory use does not grow with
+ * the number of students. Course rosters are read from the course side of
+ * student_courses.
+ */
+@Service
+public class RosterService {
+
+    public static final int MAX_PAGE_SIZE = 500;
+
+    private final StudentRepository studentRepo;
+    private final CourseRepository courseRepo;
+    private final TransactionTemplate readOnlyTx;
+    private final ObjectMapper objectMapper;
+
+    public RosterService(StudentRepository studentRepo, CourseRepository courseRepo,
+            TransactionTemplate transactionTemplate, ObjectMapper objectMapper) {
+        this.studentRepo = studentRepo;
+        this.courseRepo = courseRepo;
+        this.readOnlyTx = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.readOnlyTx.setReadOnly(true);
+        this.objectMapper = objectMapper;
+    }
+
+    public StudentPage pageStudents(long after, int size) {
+        int pageSize = pageSize(size);
+        return page(studentRepo.findSummariesAfter(after, Limit.of(pageSize + 1)), pageSize);
+    }
+
+    /**
+     * True if the course exists and is taught by the teacher with the given email.
+     */
+    public boolean teachesCourse(String teacherEmail, Long courseId) {
+        return courseRepo.existsByIdAndTeacherEmail(courseId, teacherEmail);
+    }
+
+    /**
+     * Keyset page of the students enrolled in a course, ordered by id.
+     */
+    public StudentPage pageCourseStudents(Long courseId, long after, int size) {
+        int pageSize = pageSize(size);
+        return page(studentRepo.findCourseSummariesAfter(courseId, after, Limit.of(pageSize + 1)), pageSize);
+    }
+
+    /**
+     * Writes every student as one JSON object per line. Rows are read from a scrolled
+     * query and written as they arrive.
+     */
+    public void writeStudentsNdjson(OutputStream out) {
+        readOnlyTx.executeWithoutResult(status -> {
+            try (Stream<StudentSummary> students = studentRepo.streamSummaries()) {
+                students.forEach(student -> writeLine(out, objectMapper.writeValueAsBytes(student)));
+            }
+        });
+    }
+
+    /**
+     * Writes the students enrolled in a course as CSV with an id,name,email header.
+     * Rows are read from a scrolled query and written as they arrive.
+     */
+    public void writeCourseStudentsCsv(Long courseId, OutputStream out) {
+        Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+        readOnlyTx.executeWithoutResult(status -> {
+            try (Stream<StudentSummary> students = studentRepo.streamCourseSummaries(courseId)) {
+                writer.write("id,name,email\r\n");
+                for (StudentSummary student : (Iterable<StudentSummary>) students::iterator) {
+                    writer.write(Long.toString(student.id()));
+                    writer.write(',');
+                    writer.write(csvField(student.name()));
+                    writer.write(',');
+                    writer.write(csvField(student.email()));
+                    writer.write("\r\n");
+                }
+                writer.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    /**
+     * Quotes a field that holds a comma, quote or line break, doubling its quotes.
+     */
+    private static String csvField(String value) {
+        if (value == null) {
+            return "";
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == ',' || c == '"' || c == '\r' || c == '\n') {
+                return '"' + value.replace("\"", "\"\"") + '"';
+            }
+        }
+        return value;
+    }
+
+    private static int pageSize(int size) {
+        return Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+    }
+
+    // Rows hold one more than the page size when another page exists
+    private static StudentPage page(List<StudentSummary> rows, int pageSize) {
+        if (rows.size() <= pageSize) {
+            return new StudentPage(rows, null);
+        }
+        List<StudentSummary> items = rows.subList(0, pageSize);
+        return new StudentPage(List.copyOf(items), items.get(pageSize - 1).id());
+    }
+
+    private static void writeLine(OutputStream out, byte[] line) {
+        try {
+            out.write(line);
+            out.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
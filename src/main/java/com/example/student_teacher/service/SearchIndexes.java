@@ -0,0 +1,81 @@
+package com.example.student_teacher.service;
+
+import java.text.Normalizer;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Tokenizer and sorted posting list operations shared by {@link CourseSearchIndex}
+ * and {@link StudentSearchIndex}. Posting lists are sorted {@code long[]} arrays that
+ * are never modified in place: updates return a copy, so readers can walk a list
+ * while it is being replaced.
+ */
+final class SearchIndexes {
+
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{Nd}]+");
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+
+    private SearchIndexes() {
+    }
+
+    /**
+     * Splits text into lowercase tokens of letters and digits, with accents removed.
+     */
+    static String[] tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return new String[0];
+        }
+        String folded = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        return Arrays.stream(SEPARATORS.split(folded.toLowerCase(Locale.ROOT)))
+                .filter(token -> !token.isEmpty())
+                .toArray(String[]::new);
+    }
+
+    /**
+     * Index of the first value at or after {@code from} that is not below the key.
+     * Gallops ahead before the binary search, so walking a sorted array with
+     * ascending keys costs about log(gap) per step.
+     */
+    static int seek(long[] list, int from, long key) {
+        int step = 1;
+        while (from + step < list.length && list[from + step] < key) {
+            step <<= 1;
+        }
+        int at = Arrays.binarySearch(list, from, Math.min(from + step + 1, list.length), key);
+        return at >= 0 ? at : -at - 1;
+    }
+
+    /**
+     * The list with the value added in order, or the same list if it is already there.
+     */
+    static long[] insert(long[] list, long value) {
+        int index = Arrays.binarySearch(list, value);
+        if (index >= 0) {
+            return list;
+        }
+        int at = -index - 1;
+        long[] copy = new long[list.length + 1];
+        System.arraycopy(list, 0, copy, 0, at);
+        copy[at] = value;
+        System.arraycopy(list, at, copy, at + 1, list.length - at);
+        return copy;
+    }
+
+    /**
+     * The list without the value, or null (dropping the token) when none remain.
+     */
+    static long[] delete(long[] list, long value) {
+        int index = Arrays.binarySearch(list, value);
+        if (index < 0) {
+            return list;
+        }
+        if (list.length == 1) {
+            return null;
+        }
+        long[] copy = new long[list.length - 1];
+        System.arraycopy(list, 0, copy, 0, index);
+        System.arraycopy(list, index + 1, copy, index, list.length - index - 1);
+        return copy;
+    }
+}
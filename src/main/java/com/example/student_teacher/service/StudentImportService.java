@@ -0,0 +1,296 @@
+package com.example.student_teacher.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+import org.hibernate.Session;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.student_teacher.dto.ImportReport;
+import com.example.student_teacher.dto.ImportRowResult;
+import com.example.student_teacher.dto.ImportRowResult.Status;
+import com.example.student_teacher.entity.Student;
+import com.example.student_teacher.repository.AccountDirectoryListener;
+import com.example.student_teacher.repository.AccountDirectoryRepository;
+import com.example.student_teacher.security.PasswordHashingService;
+import com.example.student_teacher.security.PrincipalCache;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.ObjectMapper;
+
+/**
+ * Imports students from a CSV or NDJSON upload. The upload is read line by line
+ * and handled in chunks of {@value #CHUNK_SIZE} rows. For each chunk:
+ * <ul>
+ * <li>one query finds the emails that are already registered,</li>
+ * <li>passwords are hashed in parallel on {@link PasswordHashingService},</li>
+ * <li>new students and their account directory rows are written in one
+ * transaction with JDBC batching.</li>
+ * </ul>
+ * Memory use is bounded by the chunk size and the per-row report.
+ */
+@Service
+public class StudentImportService {
+
+    public static final int CHUNK_SIZE = 500;
+
+    private static final List<String> CSV_COLUMNS = List.of("name", "email", "password");
+
+    private final AccountDirectoryRepository accountDirectory;
+    private final AccountDirectoryListener accountDirectoryListener;
+    private final PasswordHashingService passwordHashing;
+    private final PrincipalCache principalCache;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+
+    public StudentImportService(AccountDirectoryRepository accountDirectory,
+            AccountDirectoryListener accountDirectoryListener, PasswordHashingService passwordHashing,
+            PrincipalCache principalCache, TransactionTemplate transactionTemplate, EntityManager entityManager,
+            ObjectMapper objectMapper) {
+        this.accountDirectory = accountDirectory;
+        this.accountDirectoryListener = accountDirectoryListener;
+        this.passwordHashing = passwordHashing;
+        this.principalCache = principalCache;
+        this.transactionTemplate = transactionTemplate;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Imports a CSV upload whose first line is a header naming the
+     * {@code name}, {@code email} and {@code password} columns in any order.
+     * Fields may be double-quoted but must not span lines.
+     */
+    public ImportReport importCsv(InputStream in, Charset charset) {
+        return importLines(in, charset, true);
+    }
+
+    /**
+     * Imports an NDJSON upload with one {@code {"name", "email", "password"}} object per line.
+     */
+    public ImportReport importNdjson(InputStream in, Charset charset) {
+        return importLines(in, charset, false);
+    }
+
+    private ImportReport importLines(InputStream in, Charset charset, boolean csv) {
+        List<ImportRowResult> results = new ArrayList<>();
+        Set<String> seenEmails = new HashSet<>();
+        List<Row> chunk = new ArrayList<>(CHUNK_SIZE);
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, charset))) {
+            RowParser parser = this::parseJson;
+            int lineNumber = 0;
+            if (csv) {
+                String header = reader.readLine();
+                lineNumber++;
+                parser = header == null ? null : csvParser(header);
+                if (parser == null) {
+                    results.add(new ImportRowResult(1, null, Status.INVALID, null,
+                            "Header must name the columns " + String.join(", ", CSV_COLUMNS)));
+                    return report(results);
+                }
+            }
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                chunk.add(parser.parse(lineNumber, line));
+                if (chunk.size() == CHUNK_SIZE) {
+                    results.addAll(importChunk(chunk, seenEmails));
+                    chunk.clear();
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (!chunk.isEmpty()) {
+            results.addAll(importChunk(chunk, seenEmails));
+        }
+        return report(results);
+    }
+
+    private List<ImportRowResult> importChunk(List<Row> chunk, Set<String> seenEmails) {
+        ImportRowResult[] results = new ImportRowResult[chunk.size()];
+        List<Integer> pending = new ArrayList<>();
+        for (int i = 0; i < chunk.size(); i++) {
+            Row row = chunk.get(i);
+            String problem = row.error() != null ? row.error() : row.missingField();
+            if (problem != null) {
+                results[i] = row.result(Status.INVALID, null, problem);
+            } else if (!seenEmails.add(row.email())) {
+                results[i] = row.result(Status.DUPLICATE, null, "Email repeated in this upload");
+            } else {
+                pending.add(i);
+            }
+        }
+
+        Set<String> existing = pending.isEmpty() ? Set.of()
+                : accountDirectory.findExistingEmails(pending.stream().map(i -> chunk.get(i).email()).toList());
+        List<Integer> accepted = new ArrayList<>();
+        for (int i : pending) {
+            if (existing.contains(chunk.get(i).email())) {
+                results[i] = chunk.get(i).result(Status.DUPLICATE, null, "Email already exists");
+            } else {
+                accepted.add(i);
+            }
+        }
+
+        List<CompletableFuture<String>> hashes = accepted.stream()
+                .map(i -> passwordHashing.encodeAsync(chunk.get(i).password()))
+                .toList();
+        List<Student> students = new ArrayList<>(accepted.size());
+        for (int n = 0; n < accepted.size(); n++) {
+            Row row = chunk.get(accepted.get(n));
+            Student student = new Student();
+            student.setName(row.name());
+            student.setEmail(row.email());
+            student.setPassword(hashes.get(n).join());
+            students.add(student);
+        }
+
+        try {
+            saveBatch(students);
+            for (int n = 0; n < accepted.size(); n++) {
+                Student student = students.get(n);
+                results[accepted.get(n)] = chunk.get(accepted.get(n)).result(Status.CREATED, student.getId(), null);
+                principalCache.invalidate(student.getEmail());
+            }
+        } catch (PersistenceException | DataAccessException e) {
+            // Most likely an email registered concurrently; nothing from this chunk was saved
+            for (int i : accepted) {
+                results[i] = chunk.get(i).result(Status.FAILED, null, "Chunk not saved, please retry this row");
+            }
+        }
+        return Arrays.asList(results);
+    }
+
+    private void saveBatch(List<Student> students) {
+        if (students.isEmpty()) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            entityManager.unwrap(Session.class).setJdbcBatchSize(CHUNK_SIZE);
+            accountDirectoryListener.insertInBatch(students, () -> {
+                students.forEach(entityManager::persist);
+                entityManager.flush();
+            });
+            entityManager.clear();
+        });
+    }
+
+    /**
+     * Maps CSV fields to columns by the header, or returns null if a column is missing.
+     */
+    private static RowParser csvParser(String headerLine) {
+        List<String> header = splitCsv(headerLine).stream()
+                .map(column -> column.trim().toLowerCase(Locale.ROOT))
+                .toList();
+        int[] columns = CSV_COLUMNS.stream().mapToInt(header::indexOf).toArray();
+        if (Arrays.stream(columns).anyMatch(index -> index < 0)) {
+            return null;
+        }
+        return (lineNumber, line) -> {
+            List<String> fields = splitCsv(line);
+            if (fields.size() != header.size()) {
+                return Row.invalid(lineNumber, "Expected " + header.size() + " fields");
+            }
+            return new Row(lineNumber, fields.get(columns[0]), fields.get(columns[1]), fields.get(columns[2]), null);
+        };
+    }
+
+    private Row parseJson(int lineNumber, String line) {
+        try {
+            JsonStudent student = objectMapper.readValue(line, JsonStudent.class);
+            return new Row(lineNumber, student.name(), student.email(), student.password(), null);
+        } catch (JacksonException e) {
+            return Row.invalid(lineNumber, "Not a JSON object with name, email and password");
+        }
+    }
+
+    private static ImportReport report(List<ImportRowResult> results) {
+        int created = (int) results.stream().filter(result -> result.status() == Status.CREATED).count();
+        return new ImportReport(created, results.size() - created, results);
+    }
+
+    static List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c != '"') {
+                    field.append(c);
+                } else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    @FunctionalInterface
+    private interface RowParser {
+        Row parse(int lineNumber, String line);
+    }
+
+    private record JsonStudent(String name, String email, String password) {
+    }
+
+    private record Row(int line, String name, String email, String password, String error) {
+
+        Row {
+            name = name == null ? null : name.trim();
+            email = email == null ? null : email.trim();
+        }
+
+        static Row invalid(int line, String error) {
+            return new Row(line, null, null, null, error);
+        }
+
+        String missingField() {
+            if (name == null || name.isEmpty()) {
+                return "Name is required";
+            }
+            if (email == null || email.isEmpty()) {
+                return "Email is required";
+            }
+            if (password == null || password.isEmpty()) {
+                return "Password is required";
+            }
+            return null;
+        }
+
+        ImportRowResult result(Status status, Long id, String message) {
+            return new ImportRowResult(line, email, status, id, message);
+        }
+    }
+}
@@ -0,0 +1,397 @@
+package com.example.student_teacher.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+import com.example.student_teacher.dto.StudentSummary;
+
+/**
+ * Inverted index over student names and email addresses, used for the teacher's
+ * student search. Each token maps to the sorted ids of the students that contain
+ * it, and the tokens are kept in sorted order so a prefix is one range scan.
+ * <p>
+ * Every query token must match a student token exactly, as a prefix, or within a
+ * small edit distance (one edit for tokens of {@value #MIN_FUZZY_LENGTH} to 7
+ * characters, two from 8). Fuzzy matches are looked up among tokens with the same
+ * first character. Students rank by the sum of their best match per query token,
+ * exact above prefix above fuzzy, then by id.
+ * <p>
+ * Readers do not lock. Writers are expected to be serialized by the caller
+ * ({@link StudentSearchService} holds its write lock) and only copy the id arrays
+ * of the tokens they touch.
+ */
+public class StudentSearchIndex {
+
+    /** Upper bound on the students scored for one query. */
+    static final int MAX_CANDIDATES = 5_000;
+    /** Query tokens beyond this are ignored. */
+    static final int MAX_QUERY_TOKENS = 4;
+    /** Shorter query tokens only match exactly or as a prefix. */
+    static final int MIN_FUZZY_LENGTH = 4;
+    /**
+     * Most posting lists gathered for one query token. A broader prefix is checked
+     * against each candidate's own tokens instead.
+     */
+    static final int MAX_SOURCES = 1_000;
+
+    private static final int EXACT = 3;
+    private static final int PREFIX = 2;
+    private static final int FUZZY = 1;
+    private static final long[] NO_IDS = new long[0];
+
+    /** One posting list and how well its token matches a query token. */
+    private record Source(long[] ids, int kind) {
+    }
+
+    /** The posting lists matching a query token; incomplete when there were too many. */
+    private record TermMatch(String term, List<Source> sources, boolean complete) {
+
+        long postings() {
+            return sources.stream().mapToLong(source -> source.ids().length).sum();
+        }
+    }
+
+    private final ConcurrentSkipListMap<String, long[]> postings = new ConcurrentSkipListMap<>();
+    private final ConcurrentHashMap<Long, StudentSummary> students = new ConcurrentHashMap<>();
+
+    /**
+     * Builds an index over the given students in one pass.
+     */
+    public static StudentSearchIndex of(Collection<StudentSummary> students) {
+        StudentSearchIndex index = new StudentSearchIndex();
+        Map<String, long[]> building = new HashMap<>();
+        Map<String, Integer> sizes = new HashMap<>();
+        for (StudentSummary student : students) {
+            index.students.put(student.id(), student);
+            for (String token : tokens(student)) {
+                int size = sizes.getOrDefault(token, 0);
+                long[] ids = building.get(token);
+                if (ids == null || ids.length == size) {
+                    ids = Arrays.copyOf(ids == null ? NO_IDS : ids, Math.max(4, size * 2));
+                    building.put(token, ids);
+                }
+                ids[size] = student.id();
+                sizes.put(token, size + 1);
+            }
+        }
+        building.forEach((token, ids) -> {
+            long[] trimmed = Arrays.copyOf(ids, sizes.get(token));
+            Arrays.sort(trimmed);
+            index.postings.put(token, trimmed);
+        });
+        return index;
+    }
+
+    public int size() {
+        return students.size();
+    }
+
+    public StudentSummary get(long id) {
+        return students.get(id);
+    }
+
+    /**
+     * Adds the student, or replaces the entry with the same id.
+     */
+    public void add(StudentSummary student) {
+        remove(student.id());
+        // Publish the student before its postings, so a reader that finds the id can resolve it
+        students.put(student.id(), student);
+        long id = student.id();
+        for (String token : tokens(student)) {
+            postings.merge(token, new long[] {id}, (ids, ignored) -> SearchIndexes.insert(ids, id));
+        }
+    }
+
+    public void remove(Long studentId) {
+        StudentSummary student = students.remove(studentId);
+        if (student == null) {
+            return;
+        }
+        long id = studentId;
+        for (String token : tokens(student)) {
+            postings.computeIfPresent(token, (ignored, ids) -> SearchIndexes.delete(ids, id));
+        }
+    }
+
+    /**
+     * Ids of the students matching every token of the query, best first, at most
+     * {@code maxResults}. When {@code within} is given (sorted ids), only those
+     * students are considered; a blank query then returns them in id order.
+     */
+    public long[] search(String query, long[] within, int maxResults) {
+        String[] terms = Arrays.stream(SearchIndexes.tokenize(query))
+                .distinct().limit(MAX_QUERY_TOKENS).toArray(String[]::new);
+        if (terms.length == 0) {
+            return within == null ? NO_IDS : Arrays.copyOf(within, Math.min(within.length, maxResults));
+        }
+        List<TermMatch> matches = new ArrayList<>(terms.length);
+        int selective = 0;
+        long fewest = Long.MAX_VALUE;
+        for (int t = 0; t < terms.length; t++) {
+            TermMatch match = match(terms[t]);
+            matches.add(match);
+            // A complete term with few postings is the cheapest place to start
+            long count = match.complete() ? match.postings() : Long.MAX_VALUE - 1;
+            if (count < fewest) {
+                selective = t;
+                fewest = count;
+            }
+        }
+
+        long[] candidates;
+        int[] scores;
+        if (within != null && within.length <= fewest) {
+            candidates = within;
+            scores = new int[within.length];
+            for (TermMatch match : matches) {
+                addScores(match, candidates, scores, true);
+            }
+        } else {
+            long[] union = union(matches.get(selective).sources());
+            candidates = new long[union.length];
+            scores = new int[union.length];
+            for (int i = 0; i < union.length; i++) {
+                candidates[i] = union[i] >>> 2;
+                scores[i] = (int) (union[i] & 3);
+            }
+            for (int t = 0; t < terms.length; t++) {
+                if (t != selective) {
+                    addScores(matches.get(t), candidates, scores, false);
+                }
+            }
+            if (within != null) {
+                keepWithin(within, candidates, scores);
+            }
+        }
+        return best(candidates, scores, maxResults);
+    }
+
+    /**
+     * Tokens of the name and of the whole email address, local part and domain.
+     */
+    static Set<String> tokens(StudentSummary student) {
+        Set<String> tokens = new LinkedHashSet<>(Arrays.asList(SearchIndexes.tokenize(student.name())));
+        tokens.addAll(Arrays.asList(SearchIndexes.tokenize(student.email())));
+        return tokens;
+    }
+
+    /**
+     * Posting lists matching the term: the exact token first, then the other tokens it
+     * prefixes, then tokens within the fuzzy distance.
+     */
+    private TermMatch match(String term) {
+        List<Source> sources = new ArrayList<>();
+        long[] exact = postings.get(term);
+        if (exact != null) {
+            sources.add(new Source(exact, EXACT));
+        }
+        for (Map.Entry<String, long[]> token : withPrefix(term).entrySet()) {
+            if (token.getKey().length() > term.length()) {
+                if (sources.size() == MAX_SOURCES) {
+                    return new TermMatch(term, sources, false);
+                }
+                sources.add(new Source(token.getValue(), PREFIX));
+            }
+        }
+        int maxDistance = maxDistance(term);
+        if (maxDistance > 0) {
+            for (Map.Entry<String, long[]> token : withPrefix(term.substring(0, 1)).entrySet()) {
+                String key = token.getKey();
+                if (Math.abs(key.length() - term.length()) <= maxDistance && !key.startsWith(term)
+                        && withinDistance(term, key, maxDistance)) {
+                    if (sources.size() == MAX_SOURCES) {
+                        return new TermMatch(term, sources, false);
+                    }
+                    sources.add(new Source(token.getValue(), FUZZY));
+                }
+            }
+        }
+        return new TermMatch(term, sources, true);
+    }
+
+    private static int maxDistance(String term) {
+        return term.length() >= 8 ? 2 : term.length() >= MIN_FUZZY_LENGTH ? 1 : 0;
+    }
+
+    /**
+     * How well the term matches the student's own tokens, for terms too broad to
+     * gather all their posting lists.
+     */
+    private static int kind(StudentSummary student, String term) {
+        int best = 0;
+        int maxDistance = maxDistance(term);
+        for (String token : tokens(student)) {
+            if (token.equals(term)) {
+                return EXACT;
+            }
+            if (token.startsWith(term)) {
+                best = PREFIX;
+            } else if (best == 0 && maxDistance > 0 && token.charAt(0) == term.charAt(0)
+                    && Math.abs(token.length() - term.length()) <= maxDistance
+                    && withinDistance(term, token, maxDistance)) {
+                best = FUZZY;
+            }
+        }
+        return best;
+    }
+
+    private NavigableMap<String, long[]> withPrefix(String term) {
+        return postings.subMap(term, true, term + Character.MAX_VALUE, false);
+    }
+
+    /**
+     * Distinct ids from the sources as {@code id << 2 | kind}, keeping the best kind,
+     * up to {@link #MAX_CANDIDATES} postings. Better sources come first, so exact and
+     * prefix matches fill the cap before fuzzy ones.
+     */
+    private static long[] union(List<Source> sources) {
+        long[] buffer = new long[16];
+        int size = 0;
+        for (Source source : sources) {
+            long[] ids = source.ids();
+            int take = Math.min(ids.length, MAX_CANDIDATES - size);
+            if (size + take > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(size + take, buffer.length * 2));
+            }
+            for (int i = 0; i < take; i++) {
+                buffer[size++] = ids[i] << 2 | source.kind();
+            }
+            if (size >= MAX_CANDIDATES) {
+                break;
+            }
+        }
+        Arrays.sort(buffer, 0, size);
+        // Sorted by id then kind, so the last of each run of equal ids has the best kind
+        int distinct = 0;
+        for (int i = 0; i < size; i++) {
+            if (i + 1 == size || buffer[i] >>> 2 != buffer[i + 1] >>> 2) {
+                buffer[distinct++] = buffer[i];
+            }
+        }
+        return Arrays.copyOf(buffer, distinct);
+    }
+
+    /**
+     * Adds the term's best match to each live candidate's score and drops (score -1)
+     * the candidates it does not match. With {@code fromZero} a score of 0 still
+     * counts as live.
+     */
+    private void addScores(TermMatch match, long[] candidates, int[] scores, boolean fromZero) {
+        int[] best = new int[candidates.length];
+        if (match.complete()) {
+            for (Source source : match.sources()) {
+                mergeKind(source, candidates, best);
+            }
+        } else {
+            for (int i = 0; i < candidates.length; i++) {
+                StudentSummary student = students.get(candidates[i]);
+                if (student != null && (fromZero ? scores[i] >= 0 : scores[i] > 0)) {
+                    best[i] = kind(student, match.term());
+                }
+            }
+        }
+        for (int i = 0; i < candidates.length; i++) {
+            boolean live = fromZero ? scores[i] >= 0 : scores[i] > 0;
+            scores[i] = live && best[i] > 0 ? scores[i] + best[i] : -1;
+        }
+    }
+
+    /**
+     * Raises each candidate's best kind to the source's kind if the source contains it.
+     */
+    private static void mergeKind(Source source, long[] candidates, int[] best) {
+        long[] ids = source.ids();
+        // Both arrays are sorted: walk the shorter one and seek in the other
+        if (ids.length < candidates.length) {
+            int from = 0;
+            for (int j = 0; j < ids.length && from < candidates.length; j++) {
+                from = SearchIndexes.seek(candidates, from, ids[j]);
+                if (from < candidates.length && candidates[from] == ids[j]) {
+                    best[from] = Math.max(best[from], source.kind());
+                }
+            }
+        } else {
+            int from = 0;
+            for (int i = 0; i < candidates.length && from < ids.length; i++) {
+                from = SearchIndexes.seek(ids, from, candidates[i]);
+                if (from < ids.length && ids[from] == candidates[i]) {
+                    best[i] = Math.max(best[i], source.kind());
+                }
+            }
+        }
+    }
+
+    private static void keepWithin(long[] within, long[] candidates, int[] scores) {
+        int from = 0;
+        for (int i = 0; i < candidates.length; i++) {
+            from = SearchIndexes.seek(within, from, candidates[i]);
+            if (from == within.length || within[from] != candidates[i]) {
+                scores[i] = -1;
+            }
+        }
+    }
+
+    /**
+     * The ids with a positive score, best first and then by id, at most {@code limit}.
+     */
+    private static long[] best(long[] candidates, int[] scores, int limit) {
+        // Score in the high bits, inverted id below, so a descending sort ranks them
+        long[] ranked = new long[candidates.length];
+        int size = 0;
+        for (int i = 0; i < candidates.length; i++) {
+            if (scores[i] > 0) {
+                ranked[size++] = (long) scores[i] << 48 | (0xFFFF_FFFF_FFFFL - candidates[i]);
+            }
+        }
+        Arrays.sort(ranked, 0, size);
+        long[] ids = new long[Math.min(size, limit)];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = 0xFFFF_FFFF_FFFFL - (ranked[size - 1 - i] & 0xFFFF_FFFF_FFFFL);
+        }
+        return ids;
+    }
+
+    /**
+     * Whether the optimal string alignment distance (edits and adjacent swaps) between
+     * the two strings is at most {@code max}, giving up as soon as a row exceeds it.
+     */
+    static boolean withinDistance(String a, String b, int max) {
+        int[] twoBack = new int[b.length() + 1];
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = i;
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                int distance = Math.min(Math.min(previous[j] + 1, current[j - 1] + 1), previous[j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    distance = Math.min(distance, twoBack[j - 2] + 1);
+                }
+                current[j] = distance;
+                rowMin = Math.min(rowMin, distance);
+            }
+            if (rowMin > max) {
+                return false;
+            }
+            int[] recycled = twoBack;
+            twoBack = previous;
+            previous = current;
+            current = recycled;
+        }
+        return previous[b.length()] <= max;
+    }
+}
@@ -0,0 +1,234 @@
+package com.example.student_teacher.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.student_teacher.dto.StudentSearchPage;
+import com.example.student_teacher.dto.StudentSummary;
+import com.example.student_teacher.entity.Student;
+import com.example.student_teacher.repository.StudentRepository;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Student search for teachers, answered from an in-memory {@link StudentSearchIndex}.
+ * <p>
+ * The index is built at startup. Every Student insert, update and delete made
+ * through Hibernate is applied to it once the transaction commits, so the
+ * node that made the change sees it right away. A full rebuild every
+ * {@code app.search.students.refresh-interval} picks up changes made elsewhere
+ * (other nodes, SQL scripts), which bounds how stale the index can get.
+ */
+@Service
+public class StudentSearchService implements ApplicationRunner,
+        PostCommitInsertEventListener, PostCommitUpdateEventListener, PostCommitDeleteEventListener {
+
+    public static final int MAX_PAGE_SIZE = 100;
+    /** Results beyond this rank are not reachable by paging; refine the query instead. */
+    public static final int MAX_RESULTS = 1_000;
+
+    private static final Logger log = LoggerFactory.getLogger(StudentSearchService.class);
+
+    private final StudentRepository studentRepo;
+    private final EntityManagerFactory entityManagerFactory;
+    private final TransactionTemplate readOnlyTx;
+    // Locks rather than synchronized, so a virtual thread reading the student table does not pin its carrier
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final ReentrantLock reloadLock = new ReentrantLock();
+
+    private volatile StudentSearchIndex index;
+    // Changes committed while a rebuild reads the table, replayed onto the new index; guarded by writeLock
+    private List<Consumer<StudentSearchIndex>> pendingChanges;
+
+    public StudentSearchService(StudentRepository studentRepo, EntityManagerFactory entityManagerFactory,
+            TransactionTemplate transactionTemplate) {
+        this.studentRepo = studentRepo;
+        this.entityManagerFactory = entityManagerFactory;
+        this.readOnlyTx = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.readOnlyTx.setReadOnly(true);
+    }
+
+    @PostConstruct
+    void register() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry().requireService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, this);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, this);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, this);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        reload();
+    }
+
+    /**
+     * One page of the students matching every word of the query by name or email,
+     * best first. With a course id only students enrolled in that course are
+     * searched, and a blank query lists them by id.
+     */
+    public StudentSearchPage search(String query, Long courseId, int offset, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        int start = Math.max(0, offset);
+        if (start >= MAX_RESULTS) {
+            return new StudentSearchPage(List.of(), null);
+        }
+        long[] within = courseId == null ? null
+                : studentRepo.findEnrolledStudentIds(courseId).stream().mapToLong(Long::longValue).toArray();
+        StudentSearchIndex current = index();
+        // One result past the page tells whether another page exists
+        long[] ids = current.search(query, within, Math.min(start + pageSize + 1, MAX_RESULTS));
+        List<StudentSummary> items = new ArrayList<>(pageSize);
+        for (int i = start; i < Math.min(ids.length, start + pageSize); i++) {
+            StudentSummary student = current.get(ids[i]);
+            if (student != null) {
+                items.add(student);
+            }
+        }
+        Integer nextOffset = ids.length > start + pageSize ? start + pageSize : null;
+        return new StudentSearchPage(items, nextOffset);
+    }
+
+    /**
+     * Replaces the index with a fresh read of the student table. Changes committed
+     * during the read are applied to the new index before it is published.
+     */
+    public void reload() {
+        reloadLock.lock();
+        try {
+            writeLock.lock();
+            try {
+                pendingChanges = new ArrayList<>();
+            } finally {
+                writeLock.unlock();
+            }
+            StudentSearchIndex rebuilt = null;
+            try {
+                rebuilt = readOnlyTx.execute(status -> {
+                    try (Stream<StudentSummary> students = studentRepo.streamSummaries()) {
+                        return StudentSearchIndex.of(students.toList());
+                    }
+                });
+            } finally {
+                writeLock.lock();
+                try {
+                    if (rebuilt != null) {
+                        for (Consumer<StudentSearchIndex> change : pendingChanges) {
+                            change.accept(rebuilt);
+                        }
+                        index = rebuilt;
+                    }
+                    pendingChanges = null;
+                } finally {
+                    writeLock.unlock();
+                }
+            }
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.search.students.refresh-interval:5m}",
+            initialDelayString = "${app.search.students.refresh-interval:5m}")
+    void refresh() {
+        try {
+            long started = System.nanoTime();
+            reload();
+            log.debug("Rebuilt the student search index with {} students in {} ms", index.size(),
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+        } catch (RuntimeException e) {
+            log.warn("Could not rebuild the student search index", e);
+        }
+    }
+
+    private StudentSearchIndex index() {
+        StudentSearchIndex current = index;
+        if (current == null) {
+            reload();
+            current = index;
+        }
+        return current;
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        if (event.getEntity() instanceof Student student) {
+            apply(index -> index.add(summary(student)));
+        }
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        if (event.getEntity() instanceof Student student) {
+            apply(index -> index.add(summary(student)));
+        }
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        if (event.getEntity() instanceof Student student) {
+            Long id = student.getId();
+            apply(index -> index.remove(id));
+        }
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return Student.class.isAssignableFrom(persister.getMappedClass());
+    }
+
+    // Rolled back changes never reached the index
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+    }
+
+    private void apply(Consumer<StudentSearchIndex> change) {
+        writeLock.lock();
+        try {
+            StudentSearchIndex current = index;
+            if (current != null) {
+                change.accept(current);
+            }
+            if (pendingChanges != null) {
+                pendingChanges.add(change);
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private static StudentSummary summary(Student student) {
+        return new StudentSummary(student.getId(), student.getName(), student.getEmail());
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.student_teacher.web;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.example.student_teacher.metrics.HandlerNames;
+import com.example.student_teacher.metrics.StatementCounter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Records how many SQL statements each request ran, as the
+ * {@code http.server.requests.statements} summary tagged with the controller
+ * method. The count covers the request thread from security to view rendering;
+ * work handed to other threads, such as queued enrollments, is not included.
+ * <p>
+ * A request that runs more statements than the statement budget, takes longer than
+ * the latency budget, or repeats one statement at least {@code repeatThreshold}
+ * times (a likely N+1) is logged as a warning naming its handler and counted in
+ * {@code http.server.requests.over.budget}. A budget of 0 turns that check off.
+ */
+public class RequestStatementsFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(RequestStatementsFilter.class);
+
+    private final MeterRegistry meterRegistry;
+    private final int statementBudget;
+    private final Duration latencyBudget;
+    private final int repeatThreshold;
+    private final Set<String> ignoredHandlers;
+    private final Map<String, DistributionSummary> summaries = new ConcurrentHashMap<>();
+
+    public RequestStatementsFilter(MeterRegistry meterRegistry, int statementBudget, Duration latencyBudget,
+            int repeatThreshold, Set<String> ignoredHandlers) {
+        this.meterRegistry = meterRegistry;
+        this.statementBudget = statementBudget;
+        this.latencyBudget = latencyBudget;
+        this.repeatThreshold = repeatThreshold;
+        this.ignoredHandlers = Set.copyOf(ignoredHandlers);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long start = System.nanoTime();
+        StatementCounter.begin();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            StatementCounter.Tally tally = StatementCounter.end();
+            Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+            String handler = HandlerNames.of(request);
+            summaries.computeIfAbsent(handler, this::summary).record(tally.getTotal());
+            if (!ignoredHandlers.contains(handler)) {
+                checkBudgets(request, handler, tally, elapsed);
+            }
+        }
+    }
+
+    private void checkBudgets(HttpServletRequest request, String handler, StatementCounter.Tally tally,
+            Duration elapsed) {
+        List<String> reasons = new ArrayList<>(3);
+        if (statementBudget > 0 && tally.getTotal() > statementBudget) {
+            reasons.add("statements");
+        }
+        if (!latencyBudget.isZero() && elapsed.compareTo(latencyBudget) > 0) {
+            reasons.add("latency");
+        }
+        if (repeatThreshold > 0 && tally.getMostRepeatedCount() >= repeatThreshold) {
+            reasons.add("repeated");
+        }
+        if (reasons.isEmpty()) {
+            return;
+        }
+        reasons.forEach(reason -> Counter.builder("http.server.requests.over.budget")
+                .description("Requests over their statement or latency budget, or repeating a statement")
+                .tag("handler", handler)
+                .tag("reason", reason)
+                .register(meterRegistry)
+                .increment());
+        log.warn("Request over budget: handler={} method={} uri={} reasons={} statements={} statementBudget={} "
+                + "durationMs={} latencyBudgetMs={} repeats={} repeatedSql=\"{}\"",
+                handler, request.getMethod(), request.getRequestURI(), reasons, tally.getTotal(), statementBudget,
+                elapsed.toMillis(), latencyBudget.toMillis(), tally.getMostRepeatedCount(),
+                tally.getMostRepeatedSql());
+    }
+
+    private DistributionSummary summary(String handler) {
+        return DistributionSummary.builder("http.server.requests.statements")
+                .description("SQL statements run per request")
+                .tag("handler", handler)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,55 @@
+-- =====================================================
+-- Baseline: the schema as Hibernate created it with ddl-auto: update,
+-- before any migration existed. Later objects belong in later versions.
+-- Databases that already have these tables are baselined at version 1
+-- (spring.flyway.baseline-on-migrate) and skip this script.
+-- =====================================================
+
+-- Ids are handed out in blocks of app.jpa.id-allocation-size
+CREATE SEQUENCE teacher_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE student_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE course_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE dept_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE teacher (
+    id       BIGINT NOT NULL,
+    name     VARCHAR(255),
+    email    VARCHAR(255),
+    password VARCHAR(255),
+    role     VARCHAR(255) CHECK (role IN ('STUDENT', 'TEACHER')),
+    CONSTRAINT teacher_pkey PRIMARY KEY (id),
+    CONSTRAINT uk_teacher_email UNIQUE (email)
+);
+
+CREATE TABLE student (
+    id       BIGINT NOT NULL,
+    name     VARCHAR(255),
+    email    VARCHAR(255),
+    password VARCHAR(255),
+    role     VARCHAR(255) CHECK (role IN ('STUDENT', 'TEACHER')),
+    CONSTRAINT student_pkey PRIMARY KEY (id),
+    CONSTRAINT uk_student_email UNIQUE (email)
+);
+
+CREATE TABLE course (
+    id             BIGINT NOT NULL,
+    title          VARCHAR(255),
+    credit         INTEGER NOT NULL,
+    teacher_id     BIGINT,
+    CONSTRAINT course_pkey PRIMARY KEY (id),
+    CONSTRAINT fk_course_teacher FOREIGN KEY (teacher_id) REFERENCES teacher (id)
+);
+
+CREATE TABLE student_courses (
+    student_id BIGINT NOT NULL,
+    course_id  BIGINT NOT NULL,
+    CONSTRAINT student_courses_pkey PRIMARY KEY (course_id, student_id),
+    CONSTRAINT fk_student_courses_student FOREIGN KEY (student_id) REFERENCES student (id),
+    CONSTRAINT fk_student_courses_course FOREIGN KEY (course_id) REFERENCES course (id)
+);
+
+CREATE TABLE dept (
+    id   BIGINT NOT NULL,
+    name VARCHAR(255),
+    CONSTRAINT dept_pkey PRIMARY KEY (id)
+);
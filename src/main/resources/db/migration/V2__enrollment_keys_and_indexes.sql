@@ -0,0 +1,18 @@
+-- =====================================================
+-- Keys and indexes for the enrollment and dashboard lookups.
+-- =====================================================
+
+-- Course -> students: roster, course deletion and the seat recount.
+-- Holds both ids, so these never read the table itself.
+CREATE INDEX ix_student_courses_course ON student_courses (course_id, student_id);
+
+-- Student -> courses is the common direction, so the key leads with student_id
+ALTER TABLE student_courses DROP CONSTRAINT student_courses_pkey;
+ALTER TABLE student_courses ADD CONSTRAINT student_courses_pkey PRIMARY KEY (student_id, course_id);
+
+-- findByTeacher and the teacher dashboard
+CREATE INDEX ix_course_teacher ON course (teacher_id, id);
+
+-- Student dashboard: email -> id and name from the index alone, then the
+-- enrolled course ids from the student_courses key
+CREATE INDEX ix_student_email_cover ON student (email, id, name);
@@ -0,0 +1,15 @@
+-- =====================================================
+-- Transactional outbox for domain events.
+-- =====================================================
+
+-- Rows are written in the transaction that changes the data and deleted once
+-- every subscriber has handled them, so the table only holds undelivered events.
+CREATE SEQUENCE event_outbox_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE event_outbox (
+    id         BIGINT NOT NULL,
+    event_type VARCHAR(64) NOT NULL,
+    payload    VARCHAR(1000) NOT NULL,
+    created_at TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    CONSTRAINT event_outbox_pkey PRIMARY KEY (id)
+);
@@ -0,0 +1,34 @@
+-- =====================================================
+-- Account directory and course seat counts.
+-- =====================================================
+
+-- One row per login email across students and teachers, so authentication
+-- and duplicate checks are a single primary key lookup.
+CREATE TABLE account_directory (
+    email         VARCHAR(255) NOT NULL,
+    role          VARCHAR(255) NOT NULL CHECK (role IN ('STUDENT', 'TEACHER')),
+    account_id    BIGINT NOT NULL,
+    password_hash VARCHAR(255),
+    CONSTRAINT account_directory_pkey PRIMARY KEY (email),
+    CONSTRAINT ux_account_directory_role_account UNIQUE (role, account_id)
+);
+
+-- Existing accounts; students first so they keep priority on duplicate emails,
+-- as in AccountDirectoryBackfill.
+INSERT INTO account_directory (email, role, account_id, password_hash)
+SELECT s.email, 'STUDENT', s.id, s.password FROM student s
+WHERE s.email IS NOT NULL
+  AND NOT EXISTS (SELECT 1 FROM account_directory d WHERE d.email = s.email);
+
+INSERT INTO account_directory (email, role, account_id, password_hash)
+SELECT t.email, 'TEACHER', t.id, t.password FROM teacher t
+WHERE t.email IS NOT NULL
+  AND NOT EXISTS (SELECT 1 FROM account_directory d WHERE d.email = t.email);
+
+-- Seat limit (NULL means unlimited) and the denormalized enrollment count
+-- kept in step by EnrollmentService and EnrollmentCountReconciler.
+ALTER TABLE course ADD COLUMN capacity INTEGER;
+ALTER TABLE course ADD COLUMN enrolled_count INTEGER DEFAULT 0 NOT NULL;
+
+UPDATE course SET enrolled_count =
+    (SELECT COUNT(*) FROM student_courses sc WHERE sc.course_id = course.id);
@@ -0,0 +1,83 @@
+package com.example.student_teacher.controller;
+
+import com.example.student_teacher.dto.CatalogSnapshot;
+import com.example.student_teacher.dto.CourseSummary;
+import com.example.student_teacher.repository.CourseRepository;
+import com.example.student_teacher.service.CourseCatalog;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for CourseCatalogController.
+ * Tests the ETag handling of the catalog endpoint.
+ */
+@ExtendWith(MockitoExtension.class)
+class CourseCatalogControllerTest {
+
+    @Mock
+    private CourseCatalog courseCatalog;
+
+    @Mock
+    private CourseRepository courseRepo;
+
+    @InjectMocks
+    private CourseCatalogController courseCatalogController;
+
+    private CatalogSnapshot catalog;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+
+    @BeforeEach
+    void setUp() {
+        catalog = new CatalogSnapshot(3, List.of(new CourseSummary(1L, "Introduction to Java", 3, "Dr. Smith")));
+        when(courseCatalog.snapshot()).thenReturn(catalog);
+        when(courseCatalog.etag(catalog)).thenReturn("\"abc-3\"");
+
+        request = new MockHttpServletRequest("GET", "/courses/catalog");
+        response = new MockHttpServletResponse();
+    }
+
+    /**
+     * Verifies that the catalog is returned with its ETag.
+     */
+    @Test
+    @DisplayName("Catalog is returned with ETag")
+    void getCatalog() {
+        ResponseEntity<CatalogSnapshot> result =
+                courseCatalogController.getCatalog(new ServletWebRequest(request, response));
+
+        assertEquals(HttpStatus.OK, result.getStatusCode());
+        assertEquals("\"abc-3\"", result.getHeaders().getETag());
+        assertSame(catalog, result.getBody());
+    }
+
+    /**
+     * Verifies that a matching If-None-Match yields 304 without a body.
+     */
+    @Test
+    @DisplayName("Unchanged catalog answers 304 Not Modified")
+    void getCatalog_notModified() {
+        request.addHeader("If-None-Match", "\"abc-3\"");
+
+        ResponseEntity<CatalogSnapshot> result =
+                courseCatalogController.getCatalog(new ServletWebRequest(request, response));
+
+        assertNull(result);
+        assertEquals(304, response.getStatus());
+    }
+}
@@ -1,23 +1,22 @@
 package com.example.student_teacher.controller;
 
-import com.example.student_teacher.entity.Course;
-import com.example.student_teacher.entity.Student;
-import com.example.student_teacher.entity.Teacher;
-import com.example.student_teacher.repository.CourseRepository;
-import com.example.student_teacher.repository.StudentRepository;
-import org.junit.jupiter.api.BeforeEach;
+import com.example.student_teacher.service.EnrollmentAdmission;
+import com.example.student_teacher.service.EnrollmentService;
+import com.example.student_teacher.service.EnrollmentService.Outcome;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 
 import java.security.Principal;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 import static org.junit.jupiter.api.Assertions.*;
-import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 /* Mockito allows you to:
 
@@ -35,10 +34,10 @@ Test controller logic without database */
 class StudentControllerTest {
 
     @Mock //fake objects
-    private StudentRepository studentRepo;
+    private EnrollmentService enrollmentService;
 
     @Mock
-    private CourseRepository courseRepo;
+    private EnrollmentAdmission enrollmentAdmission;
 
     @Mock
     private Principal principal;
@@ -46,23 +45,9 @@ class StudentControllerTest {
     @InjectMocks
     private StudentController studentController;
 
-    private Student testStudent;
-    private Course testCourse;
-
-    @BeforeEach
-    void setUp() {
-        testCourse = new Course();
-        testCourse.setTitle("Introduction to Java");
-        testCourse.setCredit(3);
-
-        testStudent = new Student();
-        testStudent.setName("John Doe");
-        testStudent.setEmail("john.doe@student.edu");
-    }
-
     /**
      * Verifies that a student can enroll in a course.
-     * The course should be added to the student's course set.
+     * The enrollment should be written by student and course id only.
     ei mock variable gulo ke controller er kache send kora hoy when controller asks for them to test the controller functions 
     and also save for the aving one, no real db is used
     
@@ -71,35 +56,44 @@ class StudentControllerTest {
     @Test
     @DisplayName("Student can enroll in a course")
     void takeCourse() {
-        when(principal.getName()).thenReturn("john.doe@student.edu");
-        when(studentRepo.findByEmail("john.doe@student.edu")).thenReturn(Optional.of(testStudent));
-        when(courseRepo.findById(1L)).thenReturn(Optional.of(testCourse));
-        when(studentRepo.save(any(Student.class))).thenReturn(testStudent);
+        when(enrollmentService.resolveStudentId(principal)).thenReturn(Optional.of(7L));
+        when(enrollmentAdmission.submit(7L, 1L)).thenReturn(CompletableFuture.completedFuture(Outcome.ENROLLED));
+
+        ResponseEntity<String> result = studentController.takeCourse(1L, principal).join(); //controller er kajer result
+
+        assertEquals(HttpStatus.OK, result.getStatusCode());
+        assertEquals("Course taken", result.getBody());
+        verify(enrollmentAdmission).submit(7L, 1L); //verify whether the enrollment was queued for the given student
+    }
+
+    /**
+     * Verifies that enrolling in a full course is answered with 409 Conflict.
+     */
+    @Test
+    @DisplayName("Full course returns 409")
+    void takeCourse_full() {
+        when(enrollmentService.resolveStudentId(principal)).thenReturn(Optional.of(7L));
+        when(enrollmentAdmission.submit(7L, 1L)).thenReturn(CompletableFuture.completedFuture(Outcome.COURSE_FULL));
 
-        String result = studentController.takeCourse(1L, principal); //controller er kajer result
+        ResponseEntity<String> result = studentController.takeCourse(1L, principal).join();
 
-        assertEquals("Course taken", result);
-        assertTrue(testStudent.getCourses().contains(testCourse)); //verify whether the logic was ok eikhane was the course added for the given student
+        assertEquals(HttpStatus.CONFLICT, result.getStatusCode());
+        assertEquals("Course is full", result.getBody());
     }
 
     /**
      * Verifies that a student can drop a course.
-     * The course should be removed from the student's course set.
+     * The enrollment should be removed by student and course id only.
      */
     @Test
     @DisplayName("Student can drop a course")
     void removeCourse() {
-        Course spyCourse = spy(testCourse);
-        when(spyCourse.getId()).thenReturn(1L);  //when controller this return that
-        testStudent.getCourses().add(spyCourse);
-
-        when(principal.getName()).thenReturn("john.doe@student.edu");
-        when(studentRepo.findByEmail("john.doe@student.edu")).thenReturn(Optional.of(testStudent));
-        when(studentRepo.save(any(Student.class))).thenReturn(testStudent);
+        when(enrollmentService.resolveStudentId(principal)).thenReturn(Optional.of(7L));
+        when(enrollmentService.drop(7L, 1L)).thenReturn(true);
 
         String result = studentController.removeCourse(1L, principal);
 
         assertEquals("Course removed", result);
-        assertEquals(0, testStudent.getCourses().size());
+        verify(enrollmentService).drop(7L, 1L);
     }
-}
\ No newline at end of file
+}
@@ -1,11 +1,23 @@
 package com.example.student_teacher.controller;
 
+import com.example.student_teacher.dto.ImportReport;
+import com.example.student_teacher.dto.StudentPage;
+import com.example.student_teacher.dto.StudentSearchPage;
+import com.example.student_teacher.dto.StudentSummary;
+import com.example.student_teacher.entity.AccountEntry;
 import com.example.student_teacher.entity.Course;
+import com.example.student_teacher.entity.Role;
 import com.example.student_teacher.entity.Student;
 import com.example.student_teacher.entity.Teacher;
-import com.example.student_teacher.repository.CourseRepository;
+import com.example.student_teacher.repository.AccountDirectoryRepository;
 import com.example.student_teacher.repository.StudentRepository;
-import com.example.student_teacher.repository.TeacherRepository;
+import com.example.student_teacher.security.PasswordHashingService;
+import com.example.student_teacher.security.PrincipalCache;
+import com.example.student_teacher.service.CourseService;
+import com.example.student_teacher.service.EnrollmentService;
+import com.example.student_teacher.service.RosterService;
+import com.example.student_teacher.service.StudentImportService;
+import com.example.student_teacher.service.StudentSearchService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -14,16 +26,21 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.security.Principal;
-import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 /**
@@ -34,16 +51,34 @@ import static org.mockito.Mockito.*;
 class TeacherControllerTest {
 
     @Mock
-    private CourseRepository courseRepo;
+    private StudentRepository studentRepo;
 
     @Mock
-    private TeacherRepository teacherRepo;
+    private AccountDirectoryRepository accountDirectory;
 
     @Mock
-    private StudentRepository studentRepo;
+    private PasswordHashingService passwordHashing;
+
+    @Mock
+    private PrincipalCache principalCache;
+
+    @Mock
+    private RosterService rosterService;
+
+    @Mock
+    private CourseService courseService;
+
+    @Mock
+    private StudentImportService studentImportService;
+
+    @Mock
+    private StudentSearchService studentSearchService;
 
     @Mock
-    private PasswordEncoder passwordEncoder;
+    private EnrollmentService enrollmentService;
+
+    @Mock
+    private Executor taskExecutor;
 
     @Mock
     private Principal principal;
@@ -79,8 +114,11 @@ class TeacherControllerTest {
     @DisplayName("Teacher can add a new course")
     void addCourse() {
         when(principal.getName()).thenReturn("smith@university.edu");
-        when(teacherRepo.findByEmail("smith@university.edu")).thenReturn(Optional.of(testTeacher));
-        when(courseRepo.save(any(Course.class))).thenAnswer(inv -> inv.getArgument(0));
+        when(courseService.addCourse(eq("smith@university.edu"), any(Course.class))).thenAnswer(inv -> {
+            Course course = inv.getArgument(1);
+            course.setTeacher(testTeacher);
+            return Optional.of(course);
+        });
 
         Course result = teacherController.addCourse(testCourse, principal);
 
@@ -90,65 +128,157 @@ class TeacherControllerTest {
     }
 
     /**
-     * Verifies that a teacher can retrieve all students.
+     * Verifies that a teacher can retrieve a page of students.
      */
     @Test
-    @DisplayName("Teacher can get all students")
+    @DisplayName("Teacher can get a page of students")
     void getAllStudents() {
-        List<Student> students = Arrays.asList(testStudent);
-        when(studentRepo.findAll()).thenReturn(students);
+        StudentPage page = new StudentPage(
+                List.of(new StudentSummary(1L, "John Doe", "john.doe@student.edu")), null);
+        when(rosterService.pageStudents(0L, 50)).thenReturn(page);
+
+        StudentPage result = teacherController.getAllStudents(0L, 50);
+
+        assertEquals(1, result.items().size());
+        assertEquals("John Doe", result.items().get(0).name());
+        assertNull(result.nextCursor());
+        verify(studentRepo, never()).findAll();
+    }
+
+    /**
+     * Verifies that a teacher gets the roster of their own course, and a 404 for any
+     * other course without its students being read.
+     */
+    @Test
+    @DisplayName("Teacher can page the roster of their own course only")
+    void getCourseStudents() {
+        StudentPage page = new StudentPage(
+                List.of(new StudentSummary(1L, "John Doe", "john.doe@student.edu")), 1L);
+        when(principal.getName()).thenReturn("smith@university.edu");
+        when(rosterService.teachesCourse("smith@university.edu", 7L)).thenReturn(true);
+        when(rosterService.pageCourseStudents(7L, 0L, 1)).thenReturn(page);
+
+        ResponseEntity<?> response = teacherController.getCourseStudents(7L, 0L, 1, principal);
 
-        List<Student> result = teacherController.getAllStudents();
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertSame(page, response.getBody());
+
+        ResponseEntity<?> other = teacherController.getCourseStudents(8L, 0L, 1, principal);
+
+        assertEquals(HttpStatus.NOT_FOUND, other.getStatusCode());
+        verify(rosterService, never()).pageCourseStudents(eq(8L), anyLong(), anyInt());
+    }
+
+    /**
+     * Verifies that student search is answered by the search service, not by loading students.
+     */
+    @Test
+    @DisplayName("Teacher can search students within a course")
+    void searchStudents() {
+        StudentSearchPage page = new StudentSearchPage(
+                List.of(new StudentSummary(1L, "John Doe", "john.doe@student.edu")), 20);
+        when(principal.getName()).thenReturn("smith@university.edu");
+        when(rosterService.teachesCourse("smith@university.edu", 7L)).thenReturn(true);
+        when(studentSearchService.search("jo", 7L, 0, 20)).thenReturn(page);
 
-        assertEquals(1, result.size());
-        assertEquals("John Doe", result.get(0).getName());
+        ResponseEntity<?> result = teacherController.searchStudents("jo", 7L, 0, 20, principal);
+
+        assertEquals(HttpStatus.OK, result.getStatusCode());
+        assertSame(page, result.getBody());
+        verifyNoInteractions(studentRepo);
+    }
+
+    /**
+     * Verifies that searching within another teacher's course returns 404 without
+     * reading that course's enrollments.
+     */
+    @Test
+    @DisplayName("Teacher cannot search within another teacher's course")
+    void searchStudents_otherTeachersCourse() {
+        when(principal.getName()).thenReturn("smith@university.edu");
+        when(rosterService.teachesCourse("smith@university.edu", 8L)).thenReturn(false);
+
+        ResponseEntity<?> result = teacherController.searchStudents("jo", 8L, 0, 20, principal);
+
+        assertEquals(HttpStatus.NOT_FOUND, result.getStatusCode());
+        verifyNoInteractions(studentSearchService);
     }
 
     /**
      * Verifies that a teacher can add a new student.
-     * Password should be encoded before saving.
+     * Password should be hashed off the request thread and the student saved on the task executor.
      */
     @Test
     @DisplayName("Teacher can add a new student")
     void addStudent() {
-        when(studentRepo.findByEmail(testStudent.getEmail())).thenReturn(Optional.empty());
-        when(passwordEncoder.encode("plainPassword")).thenReturn("encodedPassword");
+        when(accountDirectory.findByEmail(testStudent.getEmail())).thenReturn(Optional.empty());
+        CompletableFuture<String> hash = new CompletableFuture<>();
+        when(passwordHashing.encodeAsync("plainPassword")).thenReturn(hash);
+        doAnswer(inv -> {
+            inv.<Runnable>getArgument(0).run();
+            return null;
+        }).when(taskExecutor).execute(any(Runnable.class));
         when(studentRepo.save(any(Student.class))).thenAnswer(inv -> inv.getArgument(0));
 
-        ResponseEntity<?> response = teacherController.addStudent(testStudent);
+        CompletableFuture<ResponseEntity<?>> result = teacherController.addStudent(testStudent);
 
+        assertFalse(result.isDone());
+        verify(studentRepo, never()).save(any());
+        hash.complete("encodedPassword");
+        ResponseEntity<?> response = result.join();
         assertEquals(HttpStatus.OK, response.getStatusCode());
         Student saved = (Student) response.getBody();
         assertEquals("encodedPassword", saved.getPassword());
+        verify(principalCache).invalidate("john.doe@student.edu");
     }
 
     /**
-     * Verifies that duplicate email is rejected when adding student.
+     * Verifies that an email already used by any account, here a teacher, is
+     * rejected when adding a student.
      */
     @Test
     @DisplayName("Reject duplicate email when adding student")
     void addStudent_duplicateEmail() {
-        when(studentRepo.findByEmail(testStudent.getEmail())).thenReturn(Optional.of(testStudent));
+        when(accountDirectory.findByEmail(testStudent.getEmail()))
+                .thenReturn(Optional.of(new AccountEntry(testStudent.getEmail(), Role.TEACHER, 9L, "hash")));
 
-        ResponseEntity<?> response = teacherController.addStudent(testStudent);
+        ResponseEntity<?> response = teacherController.addStudent(testStudent).join();
 
         assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
         assertEquals("Email already exists", response.getBody());
+        verifyNoInteractions(passwordHashing);
+    }
+
+    /**
+     * Verifies that CSV and NDJSON uploads are passed to the matching importer.
+     */
+    @Test
+    @DisplayName("Student import dispatches on content type")
+    void importStudents() {
+        InputStream body = new ByteArrayInputStream(new byte[0]);
+        ImportReport report = new ImportReport(0, 0, List.of());
+        when(studentImportService.importCsv(body, StandardCharsets.UTF_8)).thenReturn(report);
+        when(studentImportService.importNdjson(body, StandardCharsets.ISO_8859_1)).thenReturn(report);
+
+        assertSame(report, teacherController.importStudents(MediaType.parseMediaType("text/csv"), body));
+        assertSame(report, teacherController.importStudents(
+                MediaType.parseMediaType("application/x-ndjson;charset=ISO-8859-1"), body));
     }
 
     /**
      * Verifies that a teacher can delete an existing student.
+     * The deletion goes through EnrollmentService so the student's seats are given back.
      */
     @Test
     @DisplayName("Teacher can delete a student")
     void deleteStudent() {
-        when(studentRepo.existsById(1L)).thenReturn(true);
-        doNothing().when(studentRepo).deleteById(1L);
+        when(enrollmentService.deleteStudent(1L)).thenReturn(true);
 
         ResponseEntity<?> response = teacherController.deleteStudent(1L);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals("Student deleted successfully", response.getBody());
+        verify(principalCache).invalidate(Role.STUDENT, 1L);
     }
 
     /**
@@ -157,7 +287,7 @@ class TeacherControllerTest {
     @Test
     @DisplayName("Return error when deleting non-existent student")
     void deleteStudent_notFound() {
-        when(studentRepo.existsById(999L)).thenReturn(false);
+        when(enrollmentService.deleteStudent(999L)).thenReturn(false);
 
         ResponseEntity<?> response = teacherController.deleteStudent(999L);
 
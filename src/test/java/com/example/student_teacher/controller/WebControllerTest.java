@@ -1,15 +1,21 @@
 package com.example.student_teacher.controller;
 
-import com.example.student_teacher.entity.Course;
-import com.example.student_teacher.entity.Student;
-import com.example.student_teacher.entity.Teacher;
+import com.example.student_teacher.dto.CatalogSnapshot;
+import com.example.student_teacher.dto.CourseSummary;
+import com.example.student_teacher.dto.EnrolledCourseIds;
+import com.example.student_teacher.dto.StudentEnrollmentRow;
+import com.example.student_teacher.dto.TeacherCourseRow;
 import com.example.student_teacher.repository.CourseRepository;
 import com.example.student_teacher.repository.StudentRepository;
-import com.example.student_teacher.repository.TeacherRepository;
-import org.junit.jupiter.api.BeforeEach;
+import com.example.student_teacher.service.CourseCatalog;
+import com.example.student_teacher.service.CourseService;
+import com.example.student_teacher.service.EnrollmentAdmission;
+import com.example.student_teacher.service.EnrollmentService;
+import com.example.student_teacher.service.EnrollmentService.Outcome;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -17,11 +23,12 @@ import org.springframework.security.core.Authentication;
 import org.springframework.ui.Model;
 
 import java.util.Arrays;
-import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 /**
@@ -35,10 +42,19 @@ class WebControllerTest {
     private StudentRepository studentRepo;
 
     @Mock
-    private TeacherRepository teacherRepo;
+    private CourseRepository courseRepo;
 
     @Mock
-    private CourseRepository courseRepo;
+    private CourseService courseService;
+
+    @Mock
+    private EnrollmentService enrollmentService;
+
+    @Mock
+    private EnrollmentAdmission enrollmentAdmission;
+
+    @Mock
+    private CourseCatalog courseCatalog;
 
     @Mock
     private Authentication authentication;
@@ -49,32 +65,6 @@ class WebControllerTest {
     @InjectMocks
     private WebController webController;
 
-    private Student testStudent;
-    private Teacher testTeacher;
-    private Course testCourse1;
-    private Course testCourse2;
-
-    @BeforeEach
-    void setUp() {
-        testTeacher = new Teacher();
-        testTeacher.setName("Dr. Smith");
-        testTeacher.setEmail("smith@university.edu");
-
-        testStudent = new Student();
-        testStudent.setName("John Doe");
-        testStudent.setEmail("john.doe@student.edu");
-
-        testCourse1 = new Course();
-        testCourse1.setTitle("Introduction to Java");
-        testCourse1.setCredit(3);
-        testCourse1.setTeacher(testTeacher);
-
-        testCourse2 = new Course();
-        testCourse2.setTitle("Database Systems");
-        testCourse2.setCredit(4);
-        testCourse2.setTeacher(testTeacher);
-    }
-
     /**
      * Verifies that login endpoint returns the login view.
      */
@@ -90,19 +80,25 @@ class WebControllerTest {
     @Test
     @DisplayName("Student dashboard displays courses")
     void studentDashboard() {
-        testStudent.getCourses().add(testCourse1);
-        List<Course> allCourses = Arrays.asList(testCourse1, testCourse2);
+        CourseSummary java = new CourseSummary(1L, "Introduction to Java", 3, "Dr. Smith");
+        CourseSummary databases = new CourseSummary(2L, "Database Systems", 4, "Dr. Smith");
+        List<CourseSummary> allCourses = Arrays.asList(java, databases);
 
         when(authentication.getName()).thenReturn("john.doe@student.edu");
-        when(studentRepo.findByEmail("john.doe@student.edu")).thenReturn(Optional.of(testStudent));
-        when(courseRepo.findAll()).thenReturn(allCourses);
+        when(studentRepo.findEnrollmentRowsByEmail("john.doe@student.edu"))
+                .thenReturn(List.of(new StudentEnrollmentRow("John Doe", 1L)));
+        when(courseCatalog.snapshot()).thenReturn(new CatalogSnapshot(1, allCourses));
 
         String viewName = webController.studentDashboard(authentication, model);
 
         assertEquals("student-dashboard", viewName);
-        verify(model).addAttribute("student", testStudent);
-        verify(model).addAttribute("myCourses", testStudent.getCourses());
+        verify(model).addAttribute("studentName", "John Doe");
+        verify(model).addAttribute("myCourses", List.of(java));
         verify(model).addAttribute("allCourses", allCourses);
+        ArgumentCaptor<EnrolledCourseIds> enrolledIds = ArgumentCaptor.forClass(EnrolledCourseIds.class);
+        verify(model).addAttribute(eq("enrolledIds"), enrolledIds.capture());
+        assertTrue(enrolledIds.getValue().contains(1L));
+        assertFalse(enrolledIds.getValue().contains(2L));
     }
 
     /**
@@ -112,13 +108,17 @@ class WebControllerTest {
     @DisplayName("Student dashboard handles empty enrollment")
     void studentDashboard_noEnrolledCourses() {
         when(authentication.getName()).thenReturn("john.doe@student.edu");
-        when(studentRepo.findByEmail("john.doe@student.edu")).thenReturn(Optional.of(testStudent));
-        when(courseRepo.findAll()).thenReturn(Arrays.asList(testCourse1, testCourse2));
+        when(studentRepo.findEnrollmentRowsByEmail("john.doe@student.edu"))
+                .thenReturn(List.of(new StudentEnrollmentRow("John Doe", null)));
+        when(courseCatalog.snapshot()).thenReturn(new CatalogSnapshot(1, Arrays.asList(
+                new CourseSummary(1L, "Introduction to Java", 3, "Dr. Smith"),
+                new CourseSummary(2L, "Database Systems", 4, "Dr. Smith"))));
 
         String viewName = webController.studentDashboard(authentication, model);
 
         assertEquals("student-dashboard", viewName);
-        assertTrue(testStudent.getCourses().isEmpty());
+        verify(model).addAttribute("myCourses", List.of());
+        verify(model).addAttribute("enrolledIds", EnrolledCourseIds.empty());
     }
 
     /**
@@ -127,18 +127,20 @@ class WebControllerTest {
     @Test
     @DisplayName("Teacher dashboard displays courses and credits")
     void teacherDashboard() {
-        List<Course> teacherCourses = Arrays.asList(testCourse1, testCourse2);
+        TeacherCourseRow java = new TeacherCourseRow("Dr. Smith", 1L, "Introduction to Java", 3, 30, 12, 2, 7);
+        TeacherCourseRow databases = new TeacherCourseRow("Dr. Smith", 2L, "Database Systems", 4, null, 5, 2, 7);
 
         when(authentication.getName()).thenReturn("smith@university.edu");
-        when(teacherRepo.findByEmail("smith@university.edu")).thenReturn(Optional.of(testTeacher));
-        when(courseRepo.findByTeacher(testTeacher)).thenReturn(teacherCourses);
+        when(courseRepo.findTeacherDashboardRows("smith@university.edu")).thenReturn(List.of(java, databases));
 
         String viewName = webController.teacherDashboard(authentication, model);
 
         assertEquals("teacher-dashboard", viewName);
-        verify(model).addAttribute("teacher", testTeacher);
-        verify(model).addAttribute("myCourses", teacherCourses);
-        verify(model).addAttribute("totalCredits", 7); // 3 + 4
+        verify(model).addAttribute("teacherName", "Dr. Smith");
+        verify(model).addAttribute("myCourses", List.of(java, databases));
+        verify(model).addAttribute("courseCount", 2L);
+        verify(model).addAttribute("totalCredits", 7L); // 3 + 4, summed by the query
+        verify(courseRepo, only()).findTeacherDashboardRows("smith@university.edu");
     }
 
     /**
@@ -148,12 +150,75 @@ class WebControllerTest {
     @DisplayName("Teacher dashboard handles empty course list")
     void teacherDashboard_noCourses() {
         when(authentication.getName()).thenReturn("smith@university.edu");
-        when(teacherRepo.findByEmail("smith@university.edu")).thenReturn(Optional.of(testTeacher));
-        when(courseRepo.findByTeacher(testTeacher)).thenReturn(Collections.emptyList());
+        when(courseRepo.findTeacherDashboardRows("smith@university.edu")).thenReturn(List.of(
+                new TeacherCourseRow("Dr. Smith", null, null, null, null, 0, 0, 0)));
 
         String viewName = webController.teacherDashboard(authentication, model);
 
         assertEquals("teacher-dashboard", viewName);
-        verify(model).addAttribute("totalCredits", 0);
+        verify(model).addAttribute("teacherName", "Dr. Smith");
+        verify(model).addAttribute("myCourses", List.of());
+        verify(model).addAttribute("totalCredits", 0L);
+    }
+
+    /**
+     * Verifies that course deletion is delegated to the course service for the logged-in teacher.
+     */
+    @Test
+    @DisplayName("Teacher can delete own course")
+    void deleteCourse() {
+        when(authentication.getName()).thenReturn("smith@university.edu");
+        when(courseService.deleteCourse(1L, "smith@university.edu")).thenReturn(true);
+
+        String viewName = webController.deleteCourse(1L, authentication);
+
+        assertEquals("redirect:/teacher/dashboard", viewName);
+        verify(courseService).deleteCourse(1L, "smith@university.edu");
+        verifyNoInteractions(studentRepo);
+    }
+
+    /**
+     * Verifies that enrolling queues the enrollment for the logged-in student.
+     */
+    @Test
+    @DisplayName("Student can enroll from the dashboard")
+    void enrollCourse() {
+        when(enrollmentService.resolveStudentId(authentication)).thenReturn(Optional.of(7L));
+        when(enrollmentAdmission.submit(7L, 1L)).thenReturn(CompletableFuture.completedFuture(Outcome.ENROLLED));
+
+        String viewName = webController.enrollCourse(1L, authentication).join();
+
+        assertEquals("redirect:/student/dashboard", viewName);
+        verify(enrollmentAdmission).submit(7L, 1L);
+        verifyNoInteractions(studentRepo, courseRepo);
+    }
+
+    /**
+     * Verifies that a full course sends the student back with the full notice.
+     */
+    @Test
+    @DisplayName("Full course redirects with a notice")
+    void enrollCourse_full() {
+        when(enrollmentService.resolveStudentId(authentication)).thenReturn(Optional.of(7L));
+        when(enrollmentAdmission.submit(7L, 1L)).thenReturn(CompletableFuture.completedFuture(Outcome.COURSE_FULL));
+
+        String viewName = webController.enrollCourse(1L, authentication).join();
+
+        assertEquals("redirect:/student/dashboard?full", viewName);
+    }
+
+    /**
+     * Verifies that dropping removes the enrollment for the logged-in student.
+     */
+    @Test
+    @DisplayName("Student can drop from the dashboard")
+    void dropCourse() {
+        when(enrollmentService.resolveStudentId(authentication)).thenReturn(Optional.of(7L));
+
+        String viewName = webController.dropCourse(1L, authentication);
+
+        assertEquals("redirect:/student/dashboard", viewName);
+        verify(enrollmentService).drop(7L, 1L);
+        verifyNoInteractions(studentRepo, courseRepo);
     }
 }
\ No newline at end of file
@@ -0,0 +1,154 @@
+package com.example.student_teacher.event;
+
+import com.example.student_teacher.entity.OutboxEvent;
+import com.example.student_teacher.event.DomainEvent.CourseDeleted;
+import com.example.student_teacher.event.DomainEvent.EnrollmentCreated;
+import com.example.student_teacher.event.DomainEvent.EnrollmentDropped;
+import com.example.student_teacher.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for EventOutbox.
+ * Tests that events are written in the caller's transaction, delivered in
+ * batches only after commit, and left in the outbox for redelivery on failure.
+ */
+@ExtendWith(MockitoExtension.class)
+class EventOutboxTest {
+
+    @Mock
+    private OutboxEventRepository outboxRepo;
+
+    @Mock
+    private DomainEventSubscriber subscriber;
+
+    private final AtomicLong nextId = new AtomicLong(1);
+    private SimpleMeterRegistry meterRegistry;
+    private EventOutbox outbox;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        lenient().when(outboxRepo.save(any(OutboxEvent.class))).thenAnswer(invocation -> {
+            OutboxEvent row = invocation.getArgument(0);
+            ReflectionTestUtils.setField(row, "id", nextId.getAndIncrement());
+            return row;
+        });
+        outbox = new EventOutbox(outboxRepo, JsonMapper.builder().build(), List.of(subscriber), meterRegistry,
+                10, 10, Duration.ofSeconds(30));
+    }
+
+    @AfterEach
+    void tearDown() {
+        outbox.shutdown();
+    }
+
+    /**
+     * Verifies that an event cannot be recorded without a transaction to write it in.
+     */
+    @Test
+    @DisplayName("Recording outside a transaction is refused")
+    void record_requiresTransaction() {
+        assertThrows(IllegalStateException.class, () -> outbox.record(new CourseDeleted(1)));
+        verifyNoInteractions(outboxRepo);
+    }
+
+    /**
+     * Verifies that events committed while the worker is busy reach the subscriber
+     * as one batch and are deleted from the outbox, while a rolled back transaction
+     * delivers nothing.
+     */
+    @Test
+    @DisplayName("Committed events are delivered in one batch and removed")
+    void record_deliversAfterCommit() throws Exception {
+        CountDownLatch workerBusy = new CountDownLatch(1);
+        CountDownLatch releaseWorker = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            workerBusy.countDown();
+            releaseWorker.await(5, TimeUnit.SECONDS);
+            return null;
+        }).doNothing().when(subscriber).onEvents(any());
+
+        inTransaction(true, () -> outbox.record(new CourseDeleted(7)));
+        assertTrue(workerBusy.await(5, TimeUnit.SECONDS));
+        inTransaction(false, () -> outbox.record(new CourseDeleted(8)));
+        inTransaction(true, () -> {
+            outbox.record(new EnrollmentCreated(1, 10));
+            outbox.record(new EnrollmentDropped(2, 10));
+        });
+        assertEquals(2, outbox.getQueueDepth());
+        releaseWorker.countDown();
+
+        verify(subscriber, timeout(5000)).onEvents(List.of(new EnrollmentCreated(1, 10), new EnrollmentDropped(2, 10)));
+        verify(outboxRepo, timeout(5000)).deleteAllByIdInBatch(List.of(1L));
+        verify(outboxRepo, timeout(5000)).deleteAllByIdInBatch(List.of(3L, 4L));
+        verify(subscriber, times(2)).onEvents(any());
+        verify(outboxRepo).save(argThat(row -> row.getEventType().equals("EnrollmentCreated")
+                && row.getPayload().equals("{\"studentId\":1,\"courseId\":10}")));
+    }
+
+    /**
+     * Verifies that a batch whose subscriber fails stays in the outbox and is
+     * delivered again from the stored row.
+     */
+    @Test
+    @DisplayName("Failed batches stay in the outbox and are redelivered")
+    void deliver_failureLeavesEventsForRedelivery() {
+        doThrow(new IllegalStateException("down")).doNothing().when(subscriber).onEvents(any());
+        inTransaction(true, () -> outbox.record(new CourseDeleted(7)));
+        verify(subscriber, timeout(5000)).onEvents(List.of(new CourseDeleted(7)));
+        verify(outboxRepo, never()).deleteAllByIdInBatch(any());
+
+        OutboxEvent stored = new OutboxEvent("CourseDeleted", "{\"courseId\":7}", Instant.now().minusSeconds(60));
+        ReflectionTestUtils.setField(stored, "id", 1L);
+        when(outboxRepo.findWrittenBefore(any(Instant.class), any(Limit.class))).thenReturn(List.of(stored));
+        // Queued again once the failed delivery has let go of it
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () -> {
+            while (outbox.redeliverPending() == 0) {
+                Thread.sleep(10);
+            }
+        });
+
+        verify(subscriber, timeout(5000).times(2)).onEvents(List.of(new CourseDeleted(7)));
+        verify(outboxRepo, timeout(5000)).deleteAllByIdInBatch(List.of(1L));
+        assertEquals(1, meterRegistry.get("events.delivery.failures").counter().count());
+    }
+
+    // Runs the action with transaction synchronization active, then completes it as a commit or rollback
+    private static void inTransaction(boolean commit, Runnable action) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            action.run();
+            List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+            if (commit) {
+                synchronizations.forEach(TransactionSynchronization::afterCommit);
+            }
+            synchronizations.forEach(synchronization -> synchronization.afterCompletion(commit
+                    ? TransactionSynchronization.STATUS_COMMITTED : TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+}
@@ -1,26 +1,105 @@
 package com.example.student_teacher.integration;
 
+import com.example.student_teacher.dto.CatalogSnapshot;
+import com.example.student_teacher.dto.CourseSummary;
+import com.example.student_teacher.dto.EnrollmentRequest;
+import com.example.student_teacher.dto.ImportReport;
+import com.example.student_teacher.dto.ImportRowResult;
+import com.example.student_teacher.dto.StudentPage;
+import com.example.student_teacher.dto.StudentSummary;
+import com.example.student_teacher.dto.TeacherCourseRow;
+import com.example.student_teacher.dto.TeacherDashboard;
+import com.example.student_teacher.entity.AccountEntry;
 import com.example.student_teacher.entity.Course;
+import com.example.student_teacher.entity.OutboxEvent;
+import com.example.student_teacher.entity.Role;
 import com.example.student_teacher.entity.Student;
 import com.example.student_teacher.entity.Teacher;
+import com.example.student_teacher.repository.AccountDirectoryBackfill;
+import com.example.student_teacher.repository.AccountDirectoryRepository;
+import com.example.student_teacher.event.EventOutbox;
 import com.example.student_teacher.repository.CourseRepository;
+import com.example.student_teacher.repository.OutboxEventRepository;
 import com.example.student_teacher.repository.StudentRepository;
 import com.example.student_teacher.repository.TeacherRepository;
+import com.example.student_teacher.security.AccountPrincipal;
 import com.example.student_teacher.security.CustomUserDetailsService;
+import com.example.student_teacher.security.PrincipalCache;
+import com.example.student_teacher.service.CourseCatalog;
+import com.example.student_teacher.service.CourseService;
+import com.example.student_teacher.service.EnrollmentAdmission;
+import com.example.student_teacher.service.EnrollmentCountReconciler;
+import com.example.student_teacher.service.EnrollmentService;
+import com.example.student_teacher.service.EnrollmentService.Outcome;
+import com.example.student_teacher.service.RosterService;
+import com.example.student_teacher.service.StudentImportService;
+import com.example.student_teacher.service.StudentSearchService;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManager;
+import jakarta.servlet.Filter;
+import org.flywaydb.core.Flyway;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.DefaultApplicationArguments;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
 
+import static com.example.student_teacher.metrics.StatementAssertions.assertMaxStatements;
+import static com.example.student_teacher.metrics.StatementAssertions.assertStatementCount;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsString;
 import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestBuilders.formLogin;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.security.test.web.servlet.response.SecurityMockMvcResultMatchers.authenticated;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 /**
  * Integration tests for the Student-Teacher application.
@@ -48,6 +127,60 @@ class StudentTeacherIntegrationTest {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private PrincipalCache principalCache;
+
+    @Autowired
+    private AccountDirectoryRepository accountDirectory;
+
+    @Autowired
+    private AccountDirectoryBackfill accountDirectoryBackfill;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CourseService courseService;
+
+    @Autowired
+    private EnrollmentService enrollmentService;
+
+    @Autowired
+    private EnrollmentCountReconciler enrollmentCountReconciler;
+
+    @Autowired
+    private EnrollmentAdmission enrollmentAdmission;
+
+    @Autowired
+    private EventOutbox eventOutbox;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private RosterService rosterService;
+
+    @Autowired
+    private CourseCatalog courseCatalog;
+
+    @Autowired
+    private StudentImportService studentImportService;
+
+    @Autowired
+    private StudentSearchService studentSearchService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     private Student testStudent;
     private Teacher testTeacher;
     private Course testCourse;
@@ -58,6 +191,7 @@ class StudentTeacherIntegrationTest {
         courseRepository.deleteAll();
         studentRepository.deleteAll();
         teacherRepository.deleteAll();
+        principalCache.clear();
 
         // Create test teacher
         testTeacher = new Teacher();
@@ -79,6 +213,9 @@ class StudentTeacherIntegrationTest {
         testCourse.setCredit(3);
         testCourse.setTeacher(testTeacher);
         testCourse = courseRepository.save(testCourse);
+
+        // Rebuild the in-memory catalog from this test's data
+        courseCatalog.reload();
     }
 
     /**
@@ -107,9 +244,9 @@ class StudentTeacherIntegrationTest {
     @Test
     @DisplayName("Course is linked to teacher")
     void coursePersistence() {
-        List<Course> courses = courseRepository.findByTeacher(testTeacher);
-        assertEquals(1, courses.size());
-        assertEquals("Java Programming", courses.get(0).getTitle());
+        Course course = courseRepository.findById(testCourse.getId()).get();
+        assertEquals(testTeacher.getId(), course.getTeacher().getId());
+        assertEquals("Java Programming", course.getTitle());
     }
 
     /**
@@ -138,6 +275,72 @@ class StudentTeacherIntegrationTest {
                 .anyMatch(a -> a.getAuthority().equals("ROLE_TEACHER")));
     }
 
+    /**
+     * Tests that the account directory follows student and teacher writes.
+     */
+    @Test
+    @DisplayName("Account directory follows repository writes")
+    void accountDirectorySync() {
+        assertEquals(Role.TEACHER, accountDirectory.findByEmail("smith@university.edu").get().getRole());
+        assertEquals(testStudent.getId(), accountDirectory.findByEmail("john@student.edu").get().getAccountId());
+
+        Student student = studentRepository.findByEmail("john@student.edu").get();
+        student.setEmail("john.doe@student.edu");
+        studentRepository.saveAndFlush(student);
+        assertTrue(accountDirectory.findByEmail("john@student.edu").isEmpty());
+        assertTrue(accountDirectory.findByEmail("john.doe@student.edu").isPresent());
+
+        studentRepository.delete(student);
+        studentRepository.flush();
+        assertTrue(accountDirectory.findByEmail("john.doe@student.edu").isEmpty());
+    }
+
+    /**
+     * Tests that deleting one of two accounts sharing an email hands the directory
+     * row to the other, so it can still log in.
+     */
+    @Test
+    @DisplayName("Account directory reassigns a shared email on delete")
+    void accountDirectorySharedEmailDelete() {
+        Teacher teacher = new Teacher();
+        teacher.setName("Dr. Shared");
+        teacher.setEmail("shared@university.edu");
+        teacher.setPassword("teacherHash");
+        teacherRepository.saveAndFlush(teacher);
+        Student student = new Student();
+        student.setName("Shared Student");
+        student.setEmail("shared@university.edu");
+        student.setPassword("studentHash");
+        studentRepository.saveAndFlush(student);
+        assertEquals(Role.TEACHER, accountDirectory.findByEmail("shared@university.edu").get().getRole());
+
+        teacherRepository.delete(teacher);
+        teacherRepository.flush();
+        entityManager.clear();
+
+        AccountEntry entry = accountDirectory.findByEmail("shared@university.edu").get();
+        assertEquals(Role.STUDENT, entry.getRole());
+        assertEquals(student.getId(), entry.getAccountId());
+        assertEquals("studentHash", entry.getPasswordHash());
+    }
+
+    /**
+     * Tests that accounts written without the repositories are copied by the backfill.
+     */
+    @Test
+    @DisplayName("Account directory backfill copies missing accounts")
+    void accountDirectoryBackfill() throws Exception {
+        entityManager.flush();
+        jdbcTemplate.update("DELETE FROM account_directory");
+
+        accountDirectoryBackfill.run(new DefaultApplicationArguments());
+        entityManager.clear();
+
+        UserDetails userDetails = userDetailsService.loadUserByUsername("smith@university.edu");
+        assertEquals(testTeacher.getId(), ((AccountPrincipal) userDetails).getId());
+        assertTrue(accountDirectory.findByEmail("john@student.edu").isPresent());
+    }
+
     /**
      * Tests that unknown user throws exception.
      */
@@ -166,6 +369,931 @@ class StudentTeacherIntegrationTest {
                 .anyMatch(c -> c.getTitle().equals("Java Programming")));
     }
 
+    /**
+     * Tests that enrolling twice through the enrollment service creates one row.
+     */
+    @Test
+    @DisplayName("Enrollment insert is idempotent")
+    void enrollmentIsIdempotent() {
+        assertEquals(Outcome.ENROLLED, enrollmentService.enroll(testStudent.getId(), testCourse.getId()));
+        assertEquals(Outcome.ALREADY_ENROLLED, enrollmentService.enroll(testStudent.getId(), testCourse.getId()));
+        entityManager.clear();
+
+        assertEquals(1, studentRepository.findByEmail("john@student.edu").get().getCourses().size());
+        assertEquals(1, enrolledCount(testCourse.getId()));
+    }
+
+    /**
+     * Tests that enrolling in a course that does not exist, or for a student that no
+     * longer exists, writes nothing and is reported as not found, alone and in a
+     * batch, while a repeated enrollment is still reported as already enrolled.
+     */
+    @Test
+    @DisplayName("Enrollment ignores unknown course or student")
+    void enrollmentIgnoresUnknownCourse() {
+        assertEquals(Outcome.NOT_FOUND, enrollmentService.enroll(testStudent.getId(), -1L));
+        assertEquals(Outcome.NOT_FOUND, enrollmentService.enroll(-1L, testCourse.getId()));
+
+        assertEquals(Outcome.ENROLLED, enrollmentService.enroll(testStudent.getId(), testCourse.getId()));
+        assertEquals(List.of(Outcome.NOT_FOUND, Outcome.NOT_FOUND, Outcome.ALREADY_ENROLLED),
+                enrollmentService.enrollAll(List.of(new EnrollmentRequest(-1L, testCourse.getId()),
+                        new EnrollmentRequest(testStudent.getId(), -1L),
+                        new EnrollmentRequest(testStudent.getId(), testCourse.getId()))));
+        assertEquals(1, enrolledCount(testCourse.getId()));
+    }
+
+    /**
+     * Tests that dropping a course removes only that enrollment row.
+     */
+    @Test
+    @DisplayName("Student can drop course")
+    void dropEnrollment() {
+        enrollmentService.enroll(testStudent.getId(), testCourse.getId());
+
+        assertTrue(enrollmentService.drop(testStudent.getId(), testCourse.getId()));
+        assertFalse(enrollmentService.drop(testStudent.getId(), testCourse.getId()));
+        entityManager.clear();
+
+        assertTrue(studentRepository.findByEmail("john@student.edu").get().getCourses().isEmpty());
+        assertEquals(0, enrolledCount(testCourse.getId()));
+    }
+
+    /**
+     * Tests that a full course turns students away without writing an enrollment.
+     */
+    @Test
+    @DisplayName("Enrollment stops at course capacity")
+    void enrollmentRespectsCapacity() {
+        Course seminar = new Course();
+        seminar.setTitle("Seminar");
+        seminar.setCredit(1);
+        seminar.setCapacity(1);
+        seminar.setTeacher(testTeacher);
+        seminar = courseRepository.save(seminar);
+        Student other = new Student();
+        other.setName("Jane Roe");
+        other.setEmail("jane@student.edu");
+        other.setPassword("encoded");
+        other = studentRepository.saveAndFlush(other);
+
+        assertEquals(Outcome.ENROLLED, enrollmentService.enroll(testStudent.getId(), seminar.getId()));
+        assertEquals(Outcome.COURSE_FULL, enrollmentService.enroll(other.getId(), seminar.getId()));
+        assertEquals(1, enrolledCount(seminar.getId()));
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM student_courses WHERE course_id = ?", Integer.class, seminar.getId()));
+
+        enrollmentService.drop(testStudent.getId(), seminar.getId());
+        assertEquals(Outcome.ENROLLED, enrollmentService.enroll(other.getId(), seminar.getId()));
+    }
+
+    /**
+     * Tests that deleting a student gives back their seats, that Course.students reads
+     * the enrollments back, and that the reconciler repairs a count changed behind the
+     * write paths and leaves correct counts alone.
+     */
+    @Test
+    @DisplayName("Enrolled counts follow student deletion and drift is reconciled")
+    void enrollmentCountReconciliation() {
+        Student other = new Student();
+        other.setName("Jane Roe");
+        other.setEmail("jane@student.edu");
+        other.setPassword("encoded");
+        other = studentRepository.saveAndFlush(other);
+        assertEquals(Outcome.ENROLLED, enrollmentService.enroll(testStudent.getId(), testCourse.getId()));
+        assertEquals(Outcome.ENROLLED, enrollmentService.enroll(other.getId(), testCourse.getId()));
+        entityManager.clear();
+
+        assertEquals(List.of("jane@student.edu", "john@student.edu"), courseRepository.findById(testCourse.getId())
+                .get().getStudents().stream().map(Student::getEmail).sorted().toList());
+
+        assertTrue(enrollmentService.deleteStudent(other.getId()));
+        assertFalse(enrollmentService.deleteStudent(other.getId()));
+        assertEquals(1, enrolledCount(testCourse.getId()));
+        assertEquals(0, enrollmentCountReconciler.reconcile());
+
+        jdbcTemplate.update("UPDATE course SET enrolled_count = 7 WHERE id = ?", testCourse.getId());
+        assertEquals(1, enrollmentCountReconciler.reconcile());
+        assertEquals(1, enrolledCount(testCourse.getId()));
+        assertEquals(0, enrollmentCountReconciler.reconcile());
+    }
+
+    /**
+     * Tests that enrollment events reach the subscribers after commit and leave the
+     * outbox, that a rolled back enrollment records nothing, and that an outbox row
+     * left behind by a crash is delivered by redeliverPending. Runs without the test
+     * transaction because events are delivered only after a commit.
+     */
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @DisplayName("Domain events are delivered after commit and redelivered from the outbox")
+    void domainEventsAreDelivered() throws Exception {
+        double created = delivered("EnrollmentCreated");
+        double dropped = delivered("EnrollmentDropped");
+        double deleted = delivered("CourseDeleted");
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                enrollmentService.enroll(testStudent.getId(), testCourse.getId());
+                status.setRollbackOnly();
+            });
+            assertEquals(0, outboxEventRepository.count());
+
+            assertEquals(Outcome.ENROLLED, enrollmentService.enroll(testStudent.getId(), testCourse.getId()));
+            assertTrue(enrollmentService.drop(testStudent.getId(), testCourse.getId()));
+            awaitDelivery(() -> delivered("EnrollmentCreated") == created + 1
+                    && delivered("EnrollmentDropped") == dropped + 1);
+
+            outboxEventRepository.save(new OutboxEvent("CourseDeleted", "{\"courseId\":42}",
+                    Instant.now().minus(Duration.ofHours(1))));
+            assertEquals(1, eventOutbox.redeliverPending());
+            awaitDelivery(() -> delivered("CourseDeleted") == deleted + 1);
+        } finally {
+            outboxEventRepository.deleteAll();
+            studentRepository.deleteAll();
+            courseRepository.deleteAll();
+            teacherRepository.deleteAll();
+        }
+    }
+
+    private double delivered(String type) {
+        return meterRegistry.counter("events.delivered", "type", type).count();
+    }
+
+    private void awaitDelivery(BooleanSupplier delivered) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!(delivered.getAsBoolean() && outboxEventRepository.count() == 0)) {
+            assertTrue(System.nanoTime() < deadline, "Events were not delivered within 5 seconds");
+            Thread.sleep(10);
+        }
+    }
+
+    /**
+     * Stress test: 100 students race for the 10 seats of one course on 32 threads.
+     * Exactly 10 enroll and the rest get COURSE_FULL. Runs without the test
+     * transaction so every enrollment commits on its own connection.
+     */
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @DisplayName("Concurrent enrollments never exceed capacity")
+    void concurrentEnrollmentNeverOverbooks() throws Exception {
+        int capacity = 10;
+        int students = 100;
+        ExecutorService pool = Executors.newFixedThreadPool(32);
+        try {
+            Course popular = new Course();
+            popular.setTitle("Popular");
+            popular.setCredit(3);
+            popular.setCapacity(capacity);
+            popular.setTeacher(testTeacher);
+            Long courseId = courseRepository.save(popular).getId();
+            List<Student> racers = new ArrayList<>();
+            for (int i = 0; i < students; i++) {
+                Student student = new Student();
+                student.setName("Racer " + i);
+                student.setEmail("racer" + i + "@student.edu");
+                student.setPassword("encoded");
+                racers.add(student);
+            }
+            studentRepository.saveAll(racers);
+
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<Outcome>> outcomes = new ArrayList<>();
+            for (Student racer : racers) {
+                outcomes.add(pool.submit(() -> {
+                    start.await();
+                    return enrollmentService.enroll(racer.getId(), courseId);
+                }));
+            }
+            start.countDown();
+            Map<Outcome, Integer> counts = new EnumMap<>(Outcome.class);
+            for (Future<Outcome> outcome : outcomes) {
+                counts.merge(outcome.get(30, TimeUnit.SECONDS), 1, Integer::sum);
+            }
+
+            assertEquals(Map.of(Outcome.ENROLLED, capacity, Outcome.COURSE_FULL, students - capacity), counts);
+            assertEquals(capacity, enrolledCount(courseId));
+            assertEquals(capacity, jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM student_courses WHERE course_id = ?", Integer.class, courseId));
+        } finally {
+            pool.shutdownNow();
+            studentRepository.deleteAll();
+            courseRepository.deleteAll();
+            teacherRepository.deleteAll();
+        }
+    }
+
+    /**
+     * Tests that a burst sent through the admission queue is written in batches
+     * without overbooking: 20 students ask for 5 seats, one asks twice and one
+     * asks for a course that does not exist. Runs without the test transaction so
+     * the admission workers see the committed fixtures.
+     */
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @DisplayName("Admission queue batches enrollments within capacity")
+    void admissionBatchesEnrollments() throws Exception {
+        int capacity = 5;
+        try {
+            Course limited = new Course();
+            limited.setTitle("Limited");
+            limited.setCredit(2);
+            limited.setCapacity(capacity);
+            limited.setTeacher(testTeacher);
+            Long courseId = courseRepository.save(limited).getId();
+            List<Student> applicants = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                Student student = new Student();
+                student.setName("Applicant " + i);
+                student.setEmail("applicant" + i + "@student.edu");
+                student.setPassword("encoded");
+                applicants.add(student);
+            }
+            studentRepository.saveAll(applicants);
+
+            List<CompletableFuture<Outcome>> outcomes = new ArrayList<>();
+            for (Student applicant : applicants) {
+                outcomes.add(enrollmentAdmission.submit(applicant.getId(), courseId));
+            }
+            CompletableFuture<Outcome> duplicate = enrollmentAdmission.submit(applicants.get(0).getId(), courseId);
+            CompletableFuture<Outcome> missing = enrollmentAdmission.submit(applicants.get(1).getId(), -1L);
+            Map<Outcome, Integer> counts = new EnumMap<>(Outcome.class);
+            for (CompletableFuture<Outcome> outcome : outcomes) {
+                counts.merge(outcome.get(30, TimeUnit.SECONDS), 1, Integer::sum);
+            }
+
+            assertEquals(Map.of(Outcome.ENROLLED, capacity, Outcome.COURSE_FULL, 20 - capacity), counts);
+            assertTrue(EnumSet.of(Outcome.ALREADY_ENROLLED, Outcome.COURSE_FULL)
+                    .contains(duplicate.get(30, TimeUnit.SECONDS)));
+            assertEquals(Outcome.NOT_FOUND, missing.get(30, TimeUnit.SECONDS));
+            assertEquals(capacity, enrolledCount(courseId));
+            assertEquals(capacity, jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM student_courses WHERE course_id = ?", Integer.class, courseId));
+        } finally {
+            studentRepository.deleteAll();
+            courseRepository.deleteAll();
+            teacherRepository.deleteAll();
+        }
+    }
+
+    /**
+     * Tests that courses are served from the second-level cache once loaded,
+     * and that an enrollment evicts only the course whose seat count changed.
+     * Runs without the test
+     * transaction: read-write cache entries are only visible to transactions
+     * that begin after the entry was cached, so the fixtures are committed
+     * and removed afterwards.
+     */
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @DisplayName("Courses are read through the second-level cache")
+    void courseSecondLevelCache() {
+        try {
+            Course other = new Course();
+            other.setTitle("Databases");
+            other.setCredit(3);
+            other.setTeacher(testTeacher);
+            other = courseRepository.save(other);
+            courseRepository.findById(testCourse.getId()).get();
+            courseRepository.findById(other.getId()).get();
+
+            Statistics statistics = entityManager.getEntityManagerFactory()
+                    .unwrap(SessionFactory.class).getStatistics();
+            statistics.clear();
+
+            assertEquals("Java Programming", courseRepository.findById(testCourse.getId()).get().getTitle());
+            assertEquals(1, statistics.getCacheRegionStatistics("course").getHitCount());
+            assertEquals(0, statistics.getPrepareStatementCount());
+
+            assertEquals(Outcome.ENROLLED, enrollmentService.enroll(testStudent.getId(), testCourse.getId()));
+            courseRepository.findById(other.getId()).get();
+            assertEquals(2, statistics.getCacheRegionStatistics("course").getHitCount());
+
+            assertEquals(1, courseRepository.findById(testCourse.getId()).get().getEnrolledCount());
+            assertEquals(2, statistics.getCacheRegionStatistics("course").getHitCount());
+        } finally {
+            studentRepository.deleteAll();
+            courseRepository.deleteAll();
+            teacherRepository.deleteAll();
+        }
+    }
+
+    private int enrolledCount(Long courseId) {
+        return jdbcTemplate.queryForObject("SELECT enrolled_count FROM course WHERE id = ?", Integer.class, courseId);
+    }
+
+    /**
+     * Tests that students are paged by id with a cursor until the last page.
+     */
+    @Test
+    @DisplayName("Students are listed with keyset pagination")
+    void studentKeysetPagination() {
+        for (int i = 0; i < 4; i++) {
+            Student student = new Student();
+            student.setName("Paged " + i);
+            student.setEmail("paged" + i + "@student.edu");
+            student.setPassword("encoded");
+            studentRepository.save(student);
+        }
+
+        StudentPage first = rosterService.pageStudents(0, 2);
+        StudentPage second = rosterService.pageStudents(first.nextCursor(), 2);
+        StudentPage last = rosterService.pageStudents(second.nextCursor(), 2);
+
+        assertEquals(2, first.items().size());
+        assertEquals(2, second.items().size());
+        assertEquals(1, last.items().size());
+        assertNull(last.nextCursor());
+        assertTrue(first.items().get(1).id() < second.items().get(0).id());
+    }
+
+    /**
+     * Tests that the NDJSON export writes one line per student without password hashes.
+     */
+    @Test
+    @DisplayName("Students stream as NDJSON")
+    void studentNdjsonStream() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        rosterService.writeStudentsNdjson(out);
+
+        String body = out.toString(StandardCharsets.UTF_8);
+        assertEquals(1, body.lines().count());
+        assertTrue(body.contains("\"email\":\"john@student.edu\""));
+        assertFalse(body.contains("password"));
+    }
+
+    /**
+     * Tests that a teacher pages through the roster of their own course with one
+     * ownership check and one roster query per page, gets a 404 for another
+     * teacher's course, and that the CSV export quotes fields that need it.
+     */
+    @Test
+    @DisplayName("Course roster is paged by keyset and exported as CSV")
+    void courseRoster() throws Exception {
+        Teacher otherTeacher = new Teacher();
+        otherTeacher.setName("Dr. Jones");
+        otherTeacher.setEmail("jones@university.edu");
+        otherTeacher.setPassword("encoded");
+        otherTeacher = teacherRepository.save(otherTeacher);
+        Course otherCourse = new Course();
+        otherCourse.setTitle("Databases");
+        otherCourse.setCredit(3);
+        otherCourse.setTeacher(otherTeacher);
+        otherCourse = courseRepository.save(otherCourse);
+        for (String name : new String[] {"Ada Lovelace", "Hopper, Grace", "Not Enrolled"}) {
+            Student student = new Student();
+            student.setName(name);
+            student.setEmail(name.toLowerCase().replaceAll("[^a-z]", "") + "@student.edu");
+            student.setPassword("encoded");
+            student.getCourses().add(name.startsWith("Not") ? otherCourse : testCourse);
+            studentRepository.save(student);
+        }
+        Student john = studentRepository.findByEmail("john@student.edu").get();
+        john.getCourses().add(testCourse);
+        entityManager.flush();
+        entityManager.clear();
+        MockMvc mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).apply(springSecurity()).build();
+        String roster = "/teacher/courses/" + testCourse.getId() + "/students";
+
+        Long ada = studentRepository.findIdByEmail("adalovelace@student.edu").get();
+
+        mockMvc.perform(get(roster).param("size", "2").with(user("smith@university.edu").roles("TEACHER")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[*].name").value(contains("John Doe", "Ada Lovelace")))
+                .andExpect(jsonPath("$.nextCursor").value(ada));
+        assertStatementCount(2, () -> mockMvc
+                .perform(get(roster).param("size", "2").param("after", ada.toString())
+                        .with(user("smith@university.edu").roles("TEACHER")))
+                .andExpect(jsonPath("$.items[*].name").value(contains("Hopper, Grace")))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist()));
+        mockMvc.perform(get("/teacher/courses/" + otherCourse.getId() + "/students")
+                        .with(user("smith@university.edu").roles("TEACHER")))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/teacher/courses/" + otherCourse.getId() + "/students").param("format", "csv")
+                        .with(user("smith@university.edu").roles("TEACHER")))
+                .andExpect(status().isNotFound());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        rosterService.writeCourseStudentsCsv(testCourse.getId(), out);
+
+        List<String> lines = out.toString(StandardCharsets.UTF_8).lines().toList();
+        assertEquals("id,name,email", lines.get(0));
+        assertEquals(4, lines.size());
+        assertEquals(john.getId() + ",John Doe,john@student.edu", lines.get(1));
+        assertTrue(lines.get(3).endsWith(",\"Hopper, Grace\",hoppergrace@student.edu"));
+    }
+
+    /**
+     * Tests that rendering the student dashboard runs a bounded number of statements,
+     * independent of how many courses, teachers and enrollments exist.
+     */
+    @Test
+    @DisplayName("Student dashboard renders in one statement")
+    void studentDashboardStatementCount() throws Exception {
+        Student student = studentRepository.findByEmail("john@student.edu").get();
+        for (int i = 0; i < 5; i++) {
+            Teacher teacher = new Teacher();
+            teacher.setName("Teacher " + i);
+            teacher.setEmail("teacher" + i + "@university.edu");
+            teacher.setPassword("encoded");
+            teacherRepository.save(teacher);
+
+            Course course = new Course();
+            course.setTitle("Course " + i);
+            course.setCredit(3);
+            course.setTeacher(teacher);
+            student.getCourses().add(courseRepository.save(course));
+        }
+        studentRepository.save(student);
+        entityManager.flush();
+        entityManager.clear();
+        courseCatalog.reload();
+
+        MockMvc mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).apply(springSecurity()).build();
+
+        assertStatementCount(1, () -> mockMvc
+                .perform(get("/student/dashboard").with(user("john@student.edu").roles("STUDENT")))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("Teacher 4"))));
+    }
+
+    /**
+     * Tests that the teacher dashboard and course deletion stay within a fixed
+     * statement budget however many courses and enrolled students there are, the
+     * two places where per-course and per-student loops used to creep in.
+     */
+    @Test
+    @DisplayName("Teacher dashboard and course deletion stay within statement budget")
+    void teacherPagesStatementBudget() throws Exception {
+        List<Long> courseIds = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            Course course = new Course();
+            course.setTitle("Budget " + i);
+            course.setCredit(3);
+            course.setTeacher(testTeacher);
+            course = courseRepository.save(course);
+            courseIds.add(course.getId());
+            for (int j = 0; j < 5; j++) {
+                Student student = new Student();
+                student.setName("Budget Student " + i + "-" + j);
+                student.setEmail("budget" + i + "-" + j + "@student.edu");
+                student.setPassword("encoded");
+                student.getCourses().add(course);
+                studentRepository.save(student);
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+        MockMvc mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).apply(springSecurity()).build();
+
+        assertMaxStatements(1, () -> mockMvc
+                .perform(get("/teacher/dashboard").with(user("smith@university.edu").roles("TEACHER")))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("Budget 4"))));
+        assertMaxStatements(5, () -> mockMvc
+                .perform(post("/teacher/courses/delete/" + courseIds.get(0))
+                        .with(user("smith@university.edu").roles("TEACHER")))
+                .andExpect(status().is3xxRedirection()));
+    }
+
+    /**
+     * Tests that a request is timed and its statements counted under the controller
+     * method that served it, and that the Hibernate and connection pool meters are
+     * published. The observation and statement filters are added by hand because
+     * MockMvc does not pick up servlet filter registrations.
+     */
+    @Test
+    @DisplayName("Request metrics are tagged per controller method")
+    void requestMetricsPerHandler() throws Exception {
+        Filter observationFilter = webApplicationContext
+                .getBean("webMvcObservationFilter", FilterRegistrationBean.class).getFilter();
+        Filter statementsFilter = webApplicationContext
+                .getBean("requestStatements", FilterRegistrationBean.class).getFilter();
+        MockMvc mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext)
+                .addFilters(observationFilter, statementsFilter)
+                .apply(springSecurity()).build();
+        entityManager.flush();
+        entityManager.clear();
+
+        mockMvc.perform(get("/student/dashboard").with(user("john@student.edu").roles("STUDENT")))
+                .andExpect(status().isOk());
+
+        Timer latency = meterRegistry.get("http.server.requests")
+                .tag("handler", "WebController#studentDashboard").timer();
+        assertTrue(latency.count() >= 1);
+        DistributionSummary statements = meterRegistry.get("http.server.requests.statements")
+                .tag("handler", "WebController#studentDashboard").summary();
+        assertTrue(statements.count() >= 1);
+        assertEquals(1.0, statements.max());
+        assertNotNull(meterRegistry.find("hibernate.entities.loads").functionCounter());
+        assertNotNull(meterRegistry.find("hibernate.second.level.cache.requests").tag("result", "hit")
+                .functionCounter());
+        assertNotNull(meterRegistry.find("hikaricp.connections.active").gauge());
+        assertNotNull(meterRegistry.find("hikaricp.connections.pending").gauge());
+    }
+
+    /**
+     * Tests that the teacher dashboard query returns per-course enrollment counts
+     * and the totals in one statement, and a single empty row for a teacher without
+     * courses.
+     */
+    @Test
+    @DisplayName("Teacher dashboard is one aggregate query")
+    void teacherDashboardAggregate() {
+        Course databases = new Course();
+        databases.setTitle("Databases");
+        databases.setCredit(4);
+        databases.setCapacity(10);
+        databases.setTeacher(testTeacher);
+        databases = courseRepository.save(databases);
+        List<Student> students = new ArrayList<>(List.of(testStudent));
+        for (int i = 0; i < 2; i++) {
+            Student student = new Student();
+            student.setName("Aggregate " + i);
+            student.setEmail("aggregate" + i + "@student.edu");
+            student.setPassword("encoded");
+            students.add(studentRepository.save(student));
+        }
+        entityManager.flush();
+        enrollmentService.enroll(testStudent.getId(), testCourse.getId());
+        for (Student student : students) {
+            enrollmentService.enroll(student.getId(), databases.getId());
+        }
+        Teacher idle = new Teacher();
+        idle.setName("Dr. Idle");
+        idle.setEmail("idle@university.edu");
+        idle.setPassword("encoded");
+        teacherRepository.save(idle);
+        entityManager.flush();
+        entityManager.clear();
+
+        TeacherDashboard dashboard = assertMaxStatements(1, () ->
+                TeacherDashboard.of(courseRepository.findTeacherDashboardRows("smith@university.edu")));
+
+        assertEquals("Dr. Smith", dashboard.teacherName());
+        assertEquals(2, dashboard.courseCount());
+        assertEquals(7, dashboard.totalCredits());
+        assertEquals(List.of(1L, 3L), dashboard.courses().stream().map(TeacherCourseRow::enrolledStudents).toList());
+        assertEquals(10, dashboard.courses().get(1).capacity());
+
+        TeacherDashboard empty = TeacherDashboard.of(courseRepository.findTeacherDashboardRows("idle@university.edu"));
+        assertEquals("Dr. Idle", empty.teacherName());
+        assertEquals(0, empty.courseCount());
+        assertEquals(0, empty.totalCredits());
+        assertTrue(empty.courses().isEmpty());
+    }
+
+    /**
+     * Tests that the schema comes from the Flyway migrations: all versions are
+     * applied, student_courses is keyed by student first, and the lookup indexes
+     * exist. Hibernate only validates the schema, so a mapping that drifts from the
+     * migrations fails the context before any test runs.
+     */
+    @Test
+    @DisplayName("Schema is built by the migrations with enrollment indexes")
+    void schemaMigrations() {
+        assertEquals(List.of("1", "2", "3", "4"), jdbcTemplate.queryForList(
+                "SELECT \"version\" FROM \"flyway_schema_history\" WHERE \"success\" AND \"version\" IS NOT NULL ORDER BY \"installed_rank\"",
+                String.class));
+        assertEquals(List.of("STUDENT_ID", "COURSE_ID"), jdbcTemplate.queryForList(
+                "SELECT COLUMN_NAME FROM INFORMATION_SCHEMA.KEY_COLUMN_USAGE "
+                        + "WHERE CONSTRAINT_NAME = 'STUDENT_COURSES_PKEY' ORDER BY ORDINAL_POSITION",
+                String.class));
+        assertEquals(List.of("COURSE_ID", "STUDENT_ID"), indexColumns("IX_STUDENT_COURSES_COURSE"));
+        assertEquals(List.of("TEACHER_ID", "ID"), indexColumns("IX_COURSE_TEACHER"));
+        assertEquals(List.of("EMAIL", "ID", "NAME"), indexColumns("IX_STUDENT_EMAIL_COVER"));
+    }
+
+    /**
+     * Tests that a database holding only the original schema and data, as a
+     * baselined ddl-auto database does, is upgraded by the later migrations:
+     * accounts land in the directory and enrolled_count matches student_courses.
+     */
+    @Test
+    @DisplayName("Later migrations upgrade a version 1 database with data")
+    void schemaMigrations_upgradeFromBaseline() {
+        SingleConnectionDataSource dataSource = new SingleConnectionDataSource(
+                "jdbc:h2:mem:baseline_upgrade", "sa", "", true);
+        JdbcTemplate upgraded = new JdbcTemplate(dataSource);
+        try {
+            Flyway.configure().dataSource(dataSource).target("1").load().migrate();
+            upgraded.update("INSERT INTO teacher (id, name, email, password, role) "
+                    + "VALUES (1, 'T', 'shared@mail.com', 'th', 'TEACHER')");
+            upgraded.update("INSERT INTO student (id, name, email, password, role) "
+                    + "VALUES (1, 'S', 'shared@mail.com', 'sh', 'STUDENT'), (2, 'S2', 's2@mail.com', 'sh', 'STUDENT')");
+            upgraded.update("INSERT INTO course (id, title, credit, teacher_id) VALUES (1, 'C1', 3, 1), (2, 'C2', 3, 1)");
+            upgraded.update("INSERT INTO student_courses (student_id, course_id) VALUES (1, 1), (2, 1)");
+
+            Flyway.configure().dataSource(dataSource).load().migrate();
+
+            assertEquals(List.of(2, 0), upgraded.queryForList(
+                    "SELECT enrolled_count FROM course ORDER BY id", Integer.class));
+            assertEquals(List.of("shared@mail.com:STUDENT", "s2@mail.com:STUDENT"), upgraded.queryForList(
+                    "SELECT email || ':' || role FROM account_directory ORDER BY account_id", String.class));
+        } finally {
+            dataSource.destroy();
+        }
+    }
+
+    private List<String> indexColumns(String indexName) {
+        return jdbcTemplate.queryForList("SELECT COLUMN_NAME FROM INFORMATION_SCHEMA.INDEX_COLUMNS "
+                + "WHERE INDEX_NAME = ? ORDER BY ORDINAL_POSITION", String.class, indexName);
+    }
+
+    /**
+     * Tests that the catalog endpoint answers a matching If-None-Match with 304
+     * and serves the new generation after a course change.
+     */
+    @Test
+    @DisplayName("Course catalog supports conditional requests")
+    void courseCatalogConditionalGet() throws Exception {
+        MockMvc mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).apply(springSecurity()).build();
+        String etag = mockMvc.perform(get("/courses/catalog").with(user("john@student.edu").roles("STUDENT")))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("Java Programming")))
+                .andReturn().getResponse().getHeader("ETag");
+
+        Statistics statistics = entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        mockMvc.perform(get("/courses/catalog").header("If-None-Match", etag)
+                        .with(user("john@student.edu").roles("STUDENT")))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+        assertEquals(0, statistics.getPrepareStatementCount());
+
+        courseCatalog.courseSaved(new CourseSummary(testCourse.getId() + 1, "Compilers", 4, "Dr. Smith"));
+        mockMvc.perform(get("/courses/catalog").header("If-None-Match", etag)
+                        .with(user("john@student.edu").roles("STUDENT")))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("Compilers")));
+    }
+
+    /**
+     * Tests that the periodic catalog refresh picks up a course changed with plain SQL
+     * and moves the ETag only then. Seat count changes leave the catalog alone and
+     * are served by the seats endpoint.
+     */
+    @Test
+    @DisplayName("Catalog refresh picks up changes made outside the application")
+    void catalogRefreshPicksUpOutsideChanges() throws Exception {
+        entityManager.flush();
+        courseCatalog.reload();
+        String etag = courseCatalog.etag();
+
+        assertFalse(courseCatalog.refreshIfChanged());
+        jdbcTemplate.update("UPDATE course SET capacity = 30, enrolled_count = 3 WHERE id = ?", testCourse.getId());
+        assertFalse(courseCatalog.refreshIfChanged());
+        assertEquals(etag, courseCatalog.etag());
+        MockMvc mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).apply(springSecurity()).build();
+        mockMvc.perform(get("/courses/catalog/seats").with(user("john@student.edu").roles("STUDENT")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(testCourse.getId()))
+                .andExpect(jsonPath("$[0].capacity").value(30))
+                .andExpect(jsonPath("$[0].enrolledCount").value(3));
+
+        jdbcTemplate.update("UPDATE course SET title = ? WHERE id = ?", "Advanced Java", testCourse.getId());
+        assertTrue(courseCatalog.refreshIfChanged());
+
+        assertNotEquals(etag, courseCatalog.etag());
+        assertEquals("Advanced Java", courseCatalog.snapshot().courses().get(0).title());
+        assertEquals(List.of(testCourse.getId()),
+                courseCatalog.search("advanced", 10).stream().map(CourseSummary::id).toList());
+        assertTrue(courseCatalog.search("programming", 10).isEmpty());
+    }
+
+    /**
+     * Tests that the search endpoint matches title and teacher prefixes, ranks
+     * title matches first and answers without touching the database.
+     */
+    @Test
+    @DisplayName("Course search ranks title and teacher matches from memory")
+    void courseSearch() throws Exception {
+        courseCatalog.courseSaved(new CourseSummary(testCourse.getId() + 1, "Compilers", 4, "Dr. Javier"));
+        MockMvc mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).apply(springSecurity()).build();
+        Statistics statistics = entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        mockMvc.perform(get("/courses/search").param("q", "jav")
+                        .with(user("john@student.edu").roles("STUDENT")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].title").value("Java Programming"))
+                .andExpect(jsonPath("$[1].title").value("Compilers"));
+        mockMvc.perform(get("/courses/search").param("q", "prog smi").param("limit", "1")
+                        .with(user("john@student.edu").roles("STUDENT")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].teacherName").value("Dr. Smith"));
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    /**
+     * Tests that committed course changes are applied to the catalog and the search
+     * index in place, one generation per change. Runs without the test transaction because the
+     * catalog is only updated after commit.
+     */
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @DisplayName("Committed course changes update the catalog incrementally")
+    void courseChangesUpdateCatalog() {
+        try {
+            long generation = courseCatalog.snapshot().generation();
+            Course course = new Course();
+            course.setTitle("Compilers");
+            course.setCredit(4);
+            Long courseId = courseService.addCourse("smith@university.edu", course).get().getId();
+
+            CatalogSnapshot added = courseCatalog.snapshot();
+            assertEquals(generation + 1, added.generation());
+            assertEquals(List.of("Java Programming", "Compilers"),
+                    added.courses().stream().map(CourseSummary::title).toList());
+            assertEquals(List.of(courseId),
+                    courseCatalog.search("compil", 10).stream().map(CourseSummary::id).toList());
+
+            assertTrue(courseService.deleteCourse(courseId, "smith@university.edu"));
+
+            CatalogSnapshot removed = courseCatalog.snapshot();
+            assertEquals(generation + 2, removed.generation());
+            assertEquals(List.of("Java Programming"),
+                    removed.courses().stream().map(CourseSummary::title).toList());
+            assertTrue(courseCatalog.search("compil", 10).isEmpty());
+        } finally {
+            studentRepository.deleteAll();
+            courseRepository.deleteAll();
+            teacherRepository.deleteAll();
+        }
+    }
+
+    /**
+     * Tests that student search ranks exact words above prefixes, tolerates a typo,
+     * filters by course with one index-only query and pages through the results
+     * without touching the database otherwise.
+     */
+    @Test
+    @DisplayName("Teacher student search ranks, filters by course and pages")
+    void studentSearch() throws Exception {
+        for (String[] fields : new String[][] {{"Johnny Walker", "johnny@student.edu"},
+                {"Jane Roe", "jane.roe@student.edu"}}) {
+            Student student = new Student();
+            student.setName(fields[0]);
+            student.setEmail(fields[1]);
+            student.setPassword("hash");
+            studentRepository.save(student);
+        }
+        assertEquals(Outcome.ENROLLED, enrollmentService.enroll(testStudent.getId(), testCourse.getId()));
+        entityManager.flush();
+        studentSearchService.reload();
+        MockMvc mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).apply(springSecurity()).build();
+
+        assertStatementCount(0, () -> mockMvc
+                .perform(get("/teacher/students/search").param("q", "john")
+                        .with(user("smith@university.edu").roles("TEACHER")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[*].name").value(contains("John Doe", "Johnny Walker")))
+                .andExpect(jsonPath("$.nextOffset").doesNotExist()));
+        mockMvc.perform(get("/teacher/students/search").param("q", "jhon")
+                        .with(user("smith@university.edu").roles("TEACHER")))
+                .andExpect(jsonPath("$.items[*].name").value(contains("John Doe")));
+        assertStatementCount(2, () -> mockMvc
+                .perform(get("/teacher/students/search").param("q", "jo")
+                        .param("courseId", testCourse.getId().toString())
+                        .with(user("smith@university.edu").roles("TEACHER")))
+                .andExpect(jsonPath("$.items[*].name").value(contains("John Doe"))));
+        mockMvc.perform(get("/teacher/students/search").param("q", "student.edu").param("size", "2")
+                        .with(user("smith@university.edu").roles("TEACHER")))
+                .andExpect(jsonPath("$.items.length()").value(2))
+                .andExpect(jsonPath("$.nextOffset").value(2));
+        mockMvc.perform(get("/teacher/students/search").param("q", "student.edu").param("offset", "2")
+                        .with(user("smith@university.edu").roles("TEACHER")))
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.nextOffset").doesNotExist());
+    }
+
+    /**
+     * Tests that students added and deleted through the API show up in and vanish
+     * from search as soon as the change commits, without a rebuild. Runs without
+     * the test transaction because the index follows commits.
+     */
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @DisplayName("Student search follows committed adds and deletes")
+    void studentSearchFollowsCommits() throws Exception {
+        MockMvc mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).apply(springSecurity()).build();
+        try {
+            MvcResult added = mockMvc.perform(post("/teacher/students").contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"name\":\"Ada Lovelace\",\"email\":\"ada@student.edu\",\"password\":\"secret\"}")
+                            .with(user("smith@university.edu").roles("TEACHER")))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+            mockMvc.perform(asyncDispatch(added)).andExpect(status().isOk());
+            List<StudentSummary> found = studentSearchService.search("lovel", null, 0, 10).items();
+            assertEquals(List.of("ada@student.edu"), found.stream().map(StudentSummary::email).toList());
+
+            mockMvc.perform(delete("/teacher/students/" + found.get(0).id())
+                            .with(user("smith@university.edu").roles("TEACHER")))
+                    .andExpect(status().isOk());
+            assertTrue(studentSearchService.search("lovel", null, 0, 10).items().isEmpty());
+        } finally {
+            studentRepository.deleteAll();
+            courseRepository.deleteAll();
+            teacherRepository.deleteAll();
+        }
+    }
+
+    /**
+     * Tests that a CSV upload creates new students and reports duplicates and
+     * invalid rows line by line.
+     */
+    @Test
+    @DisplayName("Students are imported from CSV with a per-row report")
+    void studentCsvImport() throws Exception {
+        String csv = """
+                email,name,password
+                ada@student.edu,"Lovelace, Ada",secret1
+                john@student.edu,John Again,secret2
+                ada@student.edu,Ada Twice,secret3
+                ,No Email,secret4
+                alan@student.edu,Alan Turing,secret5
+                """;
+        MockMvc mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).apply(springSecurity()).build();
+
+        mockMvc.perform(post("/teacher/students/import").contentType("text/csv").content(csv)
+                        .with(user("smith@university.edu").roles("TEACHER")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value(2))
+                .andExpect(jsonPath("$.rejected").value(3))
+                .andExpect(jsonPath("$.rows[0].line").value(2))
+                .andExpect(jsonPath("$.rows[0].status").value("CREATED"))
+                .andExpect(jsonPath("$.rows[1].status").value("DUPLICATE"))
+                .andExpect(jsonPath("$.rows[2].status").value("DUPLICATE"))
+                .andExpect(jsonPath("$.rows[3].status").value("INVALID"))
+                .andExpect(jsonPath("$.rows[4].status").value("CREATED"));
+
+        Student ada = studentRepository.findByEmail("ada@student.edu").get();
+        assertEquals("Lovelace, Ada", ada.getName());
+        assertTrue(passwordEncoder.matches("secret1", ada.getPassword()));
+        assertEquals("ada@student.edu", userDetailsService.loadUserByUsername("ada@student.edu").getUsername());
+    }
+
+    /**
+     * Tests that NDJSON imports write students in JDBC batches, so the number of
+     * prepared statements does not grow with the number of rows.
+     */
+    @Test
+    @DisplayName("Student import inserts in batches")
+    void studentImportIsBatched() {
+        StringBuilder ndjson = new StringBuilder();
+        for (int i = 0; i < 60; i++) {
+            ndjson.append("{\"name\":\"Student ").append(i).append("\",\"email\":\"batch").append(i)
+                    .append("@student.edu\",\"password\":\"pw\"}\n");
+        }
+        ndjson.append("not json\n");
+        entityManager.flush();
+        Statistics statistics = entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        ImportReport report = studentImportService.importNdjson(
+                new ByteArrayInputStream(ndjson.toString().getBytes(StandardCharsets.UTF_8)), StandardCharsets.UTF_8);
+
+        assertEquals(60, report.created());
+        assertEquals(ImportRowResult.Status.INVALID, report.rows().get(60).status());
+        assertEquals(61, report.rows().get(60).line());
+        assertEquals(60, statistics.getEntityInsertCount());
+        assertTrue(statistics.getPrepareStatementCount() < 10,
+                "prepared " + statistics.getPrepareStatementCount() + " statements");
+        assertEquals(61, studentRepository.count());
+    }
+
+    /**
+     * Tests that inserting N courses takes about N / batch size statements: ids come
+     * from the pooled sequence in blocks and inserts are sent as JDBC batches.
+     */
+    @Test
+    @DisplayName("Bulk course inserts are batched")
+    void courseInsertsAreBatched() {
+        entityManager.flush();
+        Statistics statistics = entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        int courses = 200;
+        for (int i = 0; i < courses; i++) {
+            Course course = new Course();
+            course.setTitle("Batch course " + i);
+            course.setCredit(3);
+            course.setTeacher(testTeacher);
+            entityManager.persist(course);
+        }
+        entityManager.flush();
+
+        assertEquals(courses, statistics.getEntityInsertCount());
+        // 200 / 50 sequence calls + 200 / 50 insert batches, plus one block already in use
+        assertTrue(statistics.getPrepareStatementCount() <= 2 * courses / 50 + 1,
+                "prepared " + statistics.getPrepareStatementCount() + " statements");
+    }
+
     /**
      * Tests password encoding works correctly.
      */
@@ -175,4 +1303,99 @@ class StudentTeacherIntegrationTest {
         Student student = studentRepository.findByEmail("john@student.edu").get();
         assertTrue(passwordEncoder.matches("password123", student.getPassword()));
     }
+
+    /**
+     * Tests that a login with a hash stored before the {bcrypt} prefix rehashes it
+     * and updates the account directory.
+     */
+    @Test
+    @DisplayName("Login rehashes outdated password hashes")
+    void loginRehashesOutdatedPassword() throws Exception {
+        testStudent.setPassword(new BCryptPasswordEncoder(4).encode("password123"));
+        studentRepository.saveAndFlush(testStudent);
+        principalCache.clear();
+
+        MockMvc mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).apply(springSecurity()).build();
+        mockMvc.perform(formLogin("/login").user("john@student.edu").password("password123"))
+                .andExpect(authenticated());
+        entityManager.flush();
+        entityManager.clear();
+
+        String rehashed = studentRepository.findById(testStudent.getId()).get().getPassword();
+        assertTrue(rehashed.startsWith("{bcrypt}"));
+        assertTrue(passwordEncoder.matches("password123", rehashed));
+        assertEquals(rehashed, accountDirectory.findByEmail("john@student.edu").get().getPasswordHash());
+        assertFalse(passwordEncoder.upgradeEncoding(rehashed));
+    }
+
+    /**
+     * Tests that deleting a course unlinks it from every enrolled student.
+     */
+    @Test
+    @DisplayName("Course deletion unlinks enrolled students")
+    void courseDeletionUnlinksStudents() {
+        Student student = studentRepository.findByEmail("john@student.edu").get();
+        student.getCourses().add(testCourse);
+        studentRepository.save(student);
+        entityManager.flush();
+        entityManager.clear();
+
+        assertTrue(courseService.deleteCourse(testCourse.getId(), "smith@university.edu"));
+        entityManager.flush();
+        entityManager.clear();
+
+        assertFalse(courseRepository.existsById(testCourse.getId()));
+        assertTrue(studentRepository.findByEmail("john@student.edu").get().getCourses().isEmpty());
+    }
+
+    /**
+     * Tests that a teacher cannot delete a course owned by someone else.
+     */
+    @Test
+    @DisplayName("Course deletion requires ownership")
+    void courseDeletionRequiresOwnership() {
+        assertFalse(courseService.deleteCourse(testCourse.getId(), "other@university.edu"));
+        assertTrue(courseRepository.existsById(testCourse.getId()));
+    }
+
+    /**
+     * Tests that course deletion issues the same number of statements
+     * regardless of how many students are enrolled.
+     */
+    @Test
+    @DisplayName("Course deletion query count is constant")
+    void courseDeletionQueryCountIsConstant() {
+        long withOneStudent = statementsToDeleteCourse("one", 1);
+        long withManyStudents = statementsToDeleteCourse("many", 50);
+
+        assertEquals(withOneStudent, withManyStudents);
+    }
+
+    private long statementsToDeleteCourse(String prefix, int enrolledStudents) {
+        Course course = new Course();
+        course.setTitle("Course " + prefix);
+        course.setCredit(3);
+        course.setTeacher(testTeacher);
+        course = courseRepository.save(course);
+
+        for (int i = 0; i < enrolledStudents; i++) {
+            Student student = new Student();
+            student.setName("Student " + i);
+            student.setEmail(prefix + i + "@student.edu");
+            student.setPassword("encoded");
+            student.getCourses().add(course);
+            studentRepository.save(student);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        Statistics statistics = entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        assertTrue(courseService.deleteCourse(course.getId(), "smith@university.edu"));
+        entityManager.flush();
+
+        return statistics.getPrepareStatementCount();
+    }
 }
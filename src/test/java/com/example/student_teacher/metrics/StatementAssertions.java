@@ -0,0 +1,55 @@
+package com.example.student_teacher.metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.function.Executable;
+import org.junit.jupiter.api.function.ThrowingSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test helper that fails when code runs more (or other than the expected number of)
+ * SQL statements than allowed. Counts what {@link StatementCounter} sees on the
+ * calling thread, so it works around a service call or a MockMvc request, whose
+ * controller, filters and view rendering all run on the test thread.
+ * <p>
+ * Failure messages name the statement that ran most often, which is usually the
+ * lazy load behind an N+1 regression.
+ */
+public final class StatementAssertions {
+
+    private StatementAssertions() {
+    }
+
+    public static void assertStatementCount(int expected, Executable work) {
+        StatementCounter.Tally tally = count(work);
+        assertEquals(expected, tally.getTotal(), () -> describe(tally));
+    }
+
+    public static <T> T assertMaxStatements(int max, ThrowingSupplier<T> work) {
+        List<T> result = new ArrayList<>(1);
+        StatementCounter.Tally tally = count(() -> result.add(work.get()));
+        assertTrue(tally.getTotal() <= max, () -> "expected at most " + max + " statements, " + describe(tally));
+        return result.get(0);
+    }
+
+    private static StatementCounter.Tally count(Executable work) {
+        StatementCounter.begin();
+        try {
+            work.execute();
+        } catch (RuntimeException | Error e) {
+            StatementCounter.end();
+            throw e;
+        } catch (Throwable e) {
+            StatementCounter.end();
+            throw new AssertionError("counted code threw " + e, e);
+        }
+        return StatementCounter.end();
+    }
+
+    private static String describe(StatementCounter.Tally tally) {
+        return "ran " + tally.getTotal() + " statements; most repeated (" + tally.getMostRepeatedCount() + "x): "
+                + tally.getMostRepeatedSql();
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.student_teacher.repository;
+
+import com.example.student_teacher.entity.Student;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.event.spi.EventSource;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for AccountDirectoryListener.
+ * Tests that bulk inserts write their directory rows as one batch instead of one statement each.
+ */
+@ExtendWith(MockitoExtension.class)
+class AccountDirectoryListenerTest {
+
+    @Mock
+    private EntityManagerFactory entityManagerFactory;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private EventSource session;
+
+    private AccountDirectoryListener listener;
+
+    @BeforeEach
+    void setUp() {
+        listener = new AccountDirectoryListener(entityManagerFactory, jdbcTemplate);
+    }
+
+    private static Student student(String email) {
+        Student student = new Student();
+        student.setName(email);
+        student.setEmail(email);
+        student.setPassword("hash");
+        return student;
+    }
+
+    private PostInsertEvent inserted(Object entity) {
+        PostInsertEvent event = mock(PostInsertEvent.class);
+        when(event.getEntity()).thenReturn(entity);
+        lenient().when(event.getSession()).thenReturn(session);
+        return event;
+    }
+
+    /**
+     * Verifies that a chunk of inserted students costs one batched statement and no
+     * per-student statements.
+     */
+    @Test
+    @DisplayName("Batched inserts write the directory with one statement")
+    void insertInBatch_oneStatementPerChunk() {
+        List<Student> students = List.of(student("a@mail.com"), student("b@mail.com"), student("c@mail.com"));
+
+        listener.insertInBatch(students, () -> students.forEach(s -> listener.onPostInsert(inserted(s))));
+
+        verify(jdbcTemplate).batchUpdate(anyString(), argThat((List<Object[]> rows) -> rows.size() == 3
+                && "b@mail.com".equals(rows.get(1)[0]) && "STUDENT".equals(rows.get(1)[1])));
+        verifyNoMoreInteractions(jdbcTemplate);
+        verifyNoInteractions(session);
+    }
+
+    /**
+     * Verifies that an insert outside the batch, even during it, still gets its own row.
+     */
+    @Test
+    @DisplayName("Inserts outside the batch are written one by one")
+    void onPostInsert_notBatched() {
+        Student batched = student("a@mail.com");
+        Student other = student("z@mail.com");
+
+        listener.insertInBatch(List.of(batched), () -> {
+            listener.onPostInsert(inserted(batched));
+            listener.onPostInsert(inserted(other));
+        });
+        listener.onPostInsert(inserted(batched));
+
+        verify(session, times(2)).doWork(any());
+        verify(jdbcTemplate, times(1)).batchUpdate(anyString(), anyList());
+    }
+}
@@ -1,9 +1,12 @@
 package com.example.student_teacher.security;
 
+import com.example.student_teacher.entity.AccountEntry;
+import com.example.student_teacher.entity.Role;
 import com.example.student_teacher.entity.Student;
-import com.example.student_teacher.entity.Teacher;
+import com.example.student_teacher.repository.AccountDirectoryRepository;
 import com.example.student_teacher.repository.StudentRepository;
 import com.example.student_teacher.repository.TeacherRepository;
+import com.example.student_teacher.security.PrincipalCache.CachedAccount;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -17,6 +20,7 @@ import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
 /**
@@ -27,28 +31,27 @@ import static org.mockito.Mockito.*;
 class CustomUserDetailsServiceTest {
 
     @Mock
-    private StudentRepository studentRepository;
+    private AccountDirectoryRepository accountDirectory;
 
     @Mock
-    private TeacherRepository teacherRepository;
+    private PrincipalCache principalCache;
+
+    @Mock
+    private StudentRepository studentRepo;
+
+    @Mock
+    private TeacherRepository teacherRepo;
 
     @InjectMocks
     private CustomUserDetailsService userDetailsService;
 
-    private Student testStudent;
-    private Teacher testTeacher;
+    private AccountEntry studentEntry;
+    private AccountEntry teacherEntry;
 
     @BeforeEach
     void setUp() {
-        testStudent = new Student();
-        testStudent.setName("John Doe");
-        testStudent.setEmail("john@student.edu");
-        testStudent.setPassword("encodedPassword");
-
-        testTeacher = new Teacher();
-        testTeacher.setName("Dr. Smith");
-        testTeacher.setEmail("smith@university.edu");
-        testTeacher.setPassword("encodedPassword");
+        studentEntry = new AccountEntry("john@student.edu", Role.STUDENT, 1L, "encodedPassword");
+        teacherEntry = new AccountEntry("smith@university.edu", Role.TEACHER, 2L, "encodedPassword");
     }
 
     /**
@@ -57,7 +60,7 @@ class CustomUserDetailsServiceTest {
     @Test
     @DisplayName("Load student by email")
     void loadUserByUsername_student() {
-        when(studentRepository.findByEmail("john@student.edu")).thenReturn(Optional.of(testStudent));
+        when(accountDirectory.findByEmail("john@student.edu")).thenReturn(Optional.of(studentEntry));
 
         UserDetails userDetails = userDetailsService.loadUserByUsername("john@student.edu");
 
@@ -72,12 +75,12 @@ class CustomUserDetailsServiceTest {
     @Test
     @DisplayName("Load teacher by email")
     void loadUserByUsername_teacher() {
-        when(studentRepository.findByEmail("smith@university.edu")).thenReturn(Optional.empty());
-        when(teacherRepository.findByEmail("smith@university.edu")).thenReturn(Optional.of(testTeacher));
+        when(accountDirectory.findByEmail("smith@university.edu")).thenReturn(Optional.of(teacherEntry));
 
         UserDetails userDetails = userDetailsService.loadUserByUsername("smith@university.edu");
 
         assertEquals("smith@university.edu", userDetails.getUsername());
+        assertEquals(2L, ((AccountPrincipal) userDetails).getId());
         assertTrue(userDetails.getAuthorities().stream()
                 .anyMatch(a -> a.getAuthority().equals("ROLE_TEACHER")));
     }
@@ -88,24 +91,74 @@ class CustomUserDetailsServiceTest {
     @Test
     @DisplayName("Throw exception for unknown user")
     void loadUserByUsername_notFound() {
-        when(studentRepository.findByEmail("unknown@test.com")).thenReturn(Optional.empty());
-        when(teacherRepository.findByEmail("unknown@test.com")).thenReturn(Optional.empty());
+        when(accountDirectory.findByEmail("unknown@test.com")).thenReturn(Optional.empty());
 
         assertThrows(UsernameNotFoundException.class, () -> 
             userDetailsService.loadUserByUsername("unknown@test.com"));
     }
 
     /**
-     * Verifies that student lookup happens before teacher lookup.
+     * Verifies that teachers are resolved with the same single lookup as students.
      */
     @Test
-    @DisplayName("Student lookup takes priority")
-    void loadUserByUsername_studentPriority() {
-        when(studentRepository.findByEmail("john@student.edu")).thenReturn(Optional.of(testStudent));
+    @DisplayName("Teacher lookup is a single query")
+    void loadUserByUsername_singleLookup() {
+        when(accountDirectory.findByEmail("smith@university.edu")).thenReturn(Optional.of(teacherEntry));
+
+        userDetailsService.loadUserByUsername("smith@university.edu");
+
+        verify(accountDirectory, times(1)).findByEmail("smith@university.edu");
+        verifyNoMoreInteractions(accountDirectory);
+    }
+
+    /**
+     * Verifies that a resolved account is stored in the cache.
+     */
+    @Test
+    @DisplayName("Resolved account is cached")
+    void loadUserByUsername_populatesCache() {
+        when(accountDirectory.findByEmail("john@student.edu")).thenReturn(Optional.of(studentEntry));
 
         userDetailsService.loadUserByUsername("john@student.edu");
 
-        verify(studentRepository).findByEmail("john@student.edu");
-        verify(teacherRepository, never()).findByEmail(anyString());
+        verify(principalCache).put(new CachedAccount(1L, Role.STUDENT, "john@student.edu", "encodedPassword"));
+    }
+
+    /**
+     * Verifies that a cached account is served without querying the database.
+     */
+    @Test
+    @DisplayName("Cached account skips database lookups")
+    void loadUserByUsername_cacheHit() {
+        when(principalCache.get("smith@university.edu")).thenReturn(
+                Optional.of(new CachedAccount(5L, Role.TEACHER, "smith@university.edu", "encodedPassword")));
+
+        UserDetails userDetails = userDetailsService.loadUserByUsername("smith@university.edu");
+
+        assertEquals(5L, ((AccountPrincipal) userDetails).getId());
+        assertTrue(userDetails.getAuthorities().stream()
+                .anyMatch(a -> a.getAuthority().equals("ROLE_TEACHER")));
+        verifyNoInteractions(accountDirectory);
+        verify(principalCache, never()).put(any());
+    }
+
+    /**
+     * Verifies that a rehashed password is stored on the student and the cached entry is dropped.
+     */
+    @Test
+    @DisplayName("Update password stores the new hash")
+    void updatePassword_student() {
+        Student student = new Student();
+        student.setPassword("oldHash");
+        when(studentRepo.findById(1L)).thenReturn(Optional.of(student));
+
+        UserDetails updated = userDetailsService.updatePassword(
+                new AccountPrincipal(1L, Role.STUDENT, "john@student.edu", "oldHash"), "{bcrypt}newHash");
+
+        assertEquals("{bcrypt}newHash", student.getPassword());
+        assertEquals("{bcrypt}newHash", updated.getPassword());
+        assertEquals(1L, ((AccountPrincipal) updated).getId());
+        verify(principalCache).invalidate("john@student.edu");
+        verifyNoInteractions(teacherRepo);
     }
 }
@@ -0,0 +1,102 @@
+package com.example.student_teacher.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for PasswordHashingService.
+ * Tests delegating encoding, upgrade detection, cost calibration and metrics.
+ */
+class PasswordHashingServiceTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private PasswordHashingService hashingService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        hashingService = new PasswordHashingService(meterRegistry, 2, 10, 5, Duration.ofMillis(250));
+    }
+
+    @AfterEach
+    void tearDown() {
+        hashingService.shutdown();
+    }
+
+    /**
+     * Verifies that new hashes carry the bcrypt prefix and the configured cost.
+     */
+    @Test
+    @DisplayName("Encode adds the bcrypt prefix")
+    void encode_prefixed() {
+        String hash = hashingService.encode("secret");
+
+        assertTrue(hash.startsWith("{bcrypt}$2a$05$"));
+        assertTrue(hashingService.matches("secret", hash));
+        assertFalse(hashingService.matches("wrong", hash));
+        assertFalse(hashingService.upgradeEncoding(hash));
+    }
+
+    /**
+     * Verifies that hashes stored without a prefix still match and are flagged for rehashing.
+     */
+    @Test
+    @DisplayName("Unprefixed hashes match and need an upgrade")
+    void legacyHash_upgraded() {
+        String legacy = new BCryptPasswordEncoder(5).encode("secret");
+
+        assertTrue(hashingService.matches("secret", legacy));
+        assertTrue(hashingService.upgradeEncoding(legacy));
+    }
+
+    /**
+     * Verifies that hashes with a lower cost than the current one are flagged for rehashing.
+     */
+    @Test
+    @DisplayName("Lower cost hashes need an upgrade")
+    void lowerCost_upgraded() {
+        String weak = "{bcrypt}" + new BCryptPasswordEncoder(4).encode("secret");
+
+        assertTrue(hashingService.matches("secret", weak));
+        assertTrue(hashingService.upgradeEncoding(weak));
+    }
+
+    /**
+     * Verifies that calibration adds one cost step per doubling and stays within bounds.
+     */
+    @Test
+    @DisplayName("Calibration picks the cost that fits the target")
+    void strengthFor_target() {
+        long tenMillis = Duration.ofMillis(10).toNanos();
+
+        assertEquals(PasswordHashingService.MIN_STRENGTH,
+                PasswordHashingService.strengthFor(tenMillis, Duration.ofMillis(15)));
+        assertEquals(PasswordHashingService.MIN_STRENGTH + 2,
+                PasswordHashingService.strengthFor(tenMillis, Duration.ofMillis(45)));
+        assertEquals(PasswordHashingService.MAX_STRENGTH,
+                PasswordHashingService.strengthFor(tenMillis, Duration.ofHours(1)));
+    }
+
+    /**
+     * Verifies that hash latency and queue depth are published.
+     */
+    @Test
+    @DisplayName("Hashing records metrics")
+    void metrics_recorded() {
+        hashingService.encodeAsync("secret").join();
+        hashingService.matches("secret", hashingService.encode("secret"));
+
+        assertEquals(2, meterRegistry.get("password.hashing.duration").tag("operation", "encode").timer().count());
+        assertEquals(1, meterRegistry.get("password.hashing.duration").tag("operation", "matches").timer().count());
+        assertEquals(0, meterRegistry.get("password.hashing.queue.depth").gauge().value());
+        assertEquals(5, meterRegistry.get("password.hashing.strength").gauge().value());
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.student_teacher.security;
+
+import com.example.student_teacher.entity.Role;
+import com.example.student_teacher.security.PrincipalCache.CachedAccount;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for PrincipalCache.
+ * Tests expiry, size bound, invalidation, counters and meters.
+ */
+class PrincipalCacheTest {
+
+    private final AtomicLong now = new AtomicLong();
+
+    private SimpleMeterRegistry meterRegistry;
+    private PrincipalCache cache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new PrincipalCache(2, Duration.ofSeconds(60), now::get, meterRegistry);
+    }
+
+    private static CachedAccount student(long id, String email) {
+        return new CachedAccount(id, Role.STUDENT, email, "hash");
+    }
+
+    /**
+     * Verifies that a cached account is returned and counted as a hit, and that the
+     * counts and size are published as meters.
+     */
+    @Test
+    @DisplayName("Cached account is a hit")
+    void hit() {
+        cache.put(student(1L, "a@mail.com"));
+
+        assertEquals(1L, cache.get("a@mail.com").get().id());
+        assertTrue(cache.get("b@mail.com").isEmpty());
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+        assertEquals(1.0, meterRegistry.get("security.principal.cache.requests").tag("result", "hit")
+                .functionCounter().count());
+        assertEquals(1.0, meterRegistry.get("security.principal.cache.requests").tag("result", "miss")
+                .functionCounter().count());
+        assertEquals(1.0, meterRegistry.get("security.principal.cache.size").gauge().value());
+    }
+
+    /**
+     * Verifies that entries expire once the TTL has passed.
+     */
+    @Test
+    @DisplayName("Entries expire after TTL")
+    void expiry() {
+        cache.put(student(1L, "a@mail.com"));
+        now.addAndGet(Duration.ofSeconds(61).toNanos());
+
+        assertTrue(cache.get("a@mail.com").isEmpty());
+        cache.cleanUp();
+        assertEquals(1, cache.getEvictionCount());
+        assertEquals(0, cache.size());
+    }
+
+    /**
+     * Verifies that an entry is evicted when the cache is full.
+     */
+    @Test
+    @DisplayName("Cache stays within its size bound")
+    void sizeBound() {
+        cache.put(student(1L, "a@mail.com"));
+        cache.put(student(2L, "b@mail.com"));
+        cache.get("a@mail.com");
+        cache.put(student(3L, "c@mail.com"));
+        cache.cleanUp();
+
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getEvictionCount());
+        assertEquals(1.0, meterRegistry.get("security.principal.cache.evictions").functionCounter().count());
+    }
+
+    /**
+     * Verifies that entries can be invalidated by email or by role and id.
+     */
+    @Test
+    @DisplayName("Entries can be invalidated")
+    void invalidate() {
+        cache.put(student(1L, "a@mail.com"));
+        cache.put(student(2L, "b@mail.com"));
+
+        cache.invalidate("a@mail.com");
+        cache.invalidate(Role.STUDENT, 2L);
+
+        assertEquals(0, cache.size());
+    }
+}
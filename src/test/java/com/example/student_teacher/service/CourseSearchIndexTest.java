@@ -0,0 +1,105 @@
+package com.example.student_teacher.service;
+
+import com.example.student_teacher.dto.CourseSummary;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for CourseSearchIndex.
+ * Tests prefix matching, ranking and incremental updates.
+ */
+class CourseSearchIndexTest {
+
+    private CourseSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = CourseSearchIndex.of(List.of(
+                new CourseSummary(1L, "Introduction to Java", 3, "Dr. Smith"),
+                new CourseSummary(2L, "Advanced Java Programming", 4, "Dr. Jones"),
+                new CourseSummary(3L, "JavaScript for the Web", 3, "Dr. Smith"),
+                new CourseSummary(4L, "Linear Algebra", 4, "Dr. Javed"),
+                new CourseSummary(5L, "Économie générale", 2, "Prof. Müller")));
+    }
+
+    /**
+     * Verifies that exact title words outrank prefixes, titles starting with the query
+     * come first among prefixes, and teacher names rank last.
+     */
+    @Test
+    @DisplayName("Exact title match ranks before prefix and teacher matches")
+    void ranking() {
+        assertEquals(List.of(1L, 2L, 3L), ids(index.search("java", 10)));
+        assertEquals(List.of(3L, 1L, 2L, 4L), ids(index.search("jav", 10)));
+    }
+
+    /**
+     * Verifies that every query word must match, in the title or the teacher name.
+     */
+    @Test
+    @DisplayName("All query words must match")
+    void allWordsMustMatch() {
+        assertEquals(List.of(1L, 3L), ids(index.search("smi ja", 10)));
+        assertEquals(List.of(5L), ids(index.search("economie MULLER", 10)));
+        assertTrue(index.search("java algebra", 10).isEmpty());
+        assertTrue(index.search("", 10).isEmpty());
+    }
+
+    /**
+     * Verifies that the limit keeps only the best results.
+     */
+    @Test
+    @DisplayName("Limit keeps the best results")
+    void limit() {
+        assertEquals(List.of(3L, 1L), ids(index.search("jav", 2)));
+    }
+
+    /**
+     * Verifies that a prefix matching more than the candidate cap scores only the
+     * courses taken before the cap: the exact word first, then prefixed tokens in
+     * alphabetical order, so a better match further along is left out.
+     */
+    @Test
+    @DisplayName("Candidate cap is applied before ranking")
+    void candidateCap() {
+        List<CourseSummary> courses = new ArrayList<>();
+        LongStream.rangeClosed(1, CourseSearchIndex.MAX_CANDIDATES)
+                .forEach(id -> courses.add(new CourseSummary(id, "Databases " + id, 3, "Dr. Smith")));
+        courses.add(new CourseSummary(10_001L, "Data", 3, "Dr. Smith"));
+        courses.add(new CourseSummary(10_002L, "Datum", 3, "Dr. Smith"));
+        CourseSearchIndex large = CourseSearchIndex.of(courses);
+
+        // "Datum" would rank second on its one-word title, but "databases" fills the cap first
+        assertEquals(List.of(10_001L, 1L, 2L), ids(large.search("data", 3)));
+        assertEquals(List.of(10_002L), ids(large.search("datu", 3)));
+    }
+
+    /**
+     * Verifies that added, renamed and removed courses are reflected right away.
+     */
+    @Test
+    @DisplayName("Adds, renames and removals update the index")
+    void incrementalUpdates() {
+        index.add(new CourseSummary(6L, "Data Structures", 3, "Dr. Jones"));
+        assertEquals(List.of(6L), ids(index.search("struct", 10)));
+
+        index.add(new CourseSummary(6L, "Algorithms", 3, "Dr. Jones"));
+        assertTrue(index.search("struct", 10).isEmpty());
+        assertEquals(List.of(6L, 4L), ids(index.search("alg", 10)));
+
+        index.remove(2L);
+        assertEquals(List.of(6L), ids(index.search("jones", 10)));
+        assertEquals(5, index.size());
+    }
+
+    private static List<Long> ids(List<CourseSummary> courses) {
+        return courses.stream().map(CourseSummary::id).toList();
+    }
+}
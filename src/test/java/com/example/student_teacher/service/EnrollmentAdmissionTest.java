@@ -0,0 +1,119 @@
+package com.example.student_teacher.service;
+
+import com.example.student_teacher.dto.EnrollmentRequest;
+import com.example.student_teacher.service.EnrollmentService.Outcome;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for EnrollmentAdmission.
+ * Tests batching, per-student fairness, queue bounds and metrics with one worker
+ * that is held inside its first batch.
+ */
+@ExtendWith(MockitoExtension.class)
+class EnrollmentAdmissionTest {
+
+    @Mock
+    private EnrollmentService enrollmentService;
+
+    private SimpleMeterRegistry meterRegistry;
+    private EnrollmentAdmission admission;
+    private CountDownLatch workerBusy;
+    private CountDownLatch releaseWorker;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        workerBusy = new CountDownLatch(1);
+        releaseWorker = new CountDownLatch(1);
+        when(enrollmentService.enrollAll(anyList())).thenAnswer(invocation -> {
+            List<EnrollmentRequest> batch = invocation.getArgument(0);
+            workerBusy.countDown();
+            releaseWorker.await(5, TimeUnit.SECONDS);
+            return Collections.nCopies(batch.size(), Outcome.ENROLLED);
+        });
+        admission = new EnrollmentAdmission(enrollmentService, meterRegistry, 1, 3, 10, 1, Duration.ofSeconds(2));
+    }
+
+    @AfterEach
+    void tearDown() {
+        releaseWorker.countDown();
+        admission.shutdown();
+    }
+
+    /**
+     * Verifies that requests queued while the worker is busy are written as one batch.
+     */
+    @Test
+    @DisplayName("Queued requests are written in one batch")
+    void submit_batchesQueuedRequests() throws Exception {
+        CompletableFuture<Outcome> first = admission.submit(1L, 10L);
+        assertTrue(workerBusy.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Outcome> second = admission.submit(2L, 10L);
+        CompletableFuture<Outcome> third = admission.submit(3L, 11L);
+        assertEquals(2, admission.getQueueDepth());
+
+        releaseWorker.countDown();
+
+        assertEquals(Outcome.ENROLLED, first.get(5, TimeUnit.SECONDS));
+        assertEquals(Outcome.ENROLLED, second.get(5, TimeUnit.SECONDS));
+        assertEquals(Outcome.ENROLLED, third.get(5, TimeUnit.SECONDS));
+        verify(enrollmentService).enrollAll(List.of(
+                new EnrollmentRequest(2L, 10L), new EnrollmentRequest(3L, 11L)));
+        assertEquals(2, meterRegistry.get("enrollment.admission.batch.size").summary().count());
+        assertEquals(3, meterRegistry.get("enrollment.admission.wait").timer().count());
+    }
+
+    /**
+     * Verifies that a student cannot queue more than the per-student limit.
+     */
+    @Test
+    @DisplayName("Per-student limit rejects with retry hint")
+    void submit_perStudentLimit() throws Exception {
+        admission.submit(1L, 10L);
+        assertTrue(workerBusy.await(5, TimeUnit.SECONDS));
+        admission.submit(2L, 10L);
+
+        AdmissionRejectedException rejected =
+                assertThrows(AdmissionRejectedException.class, () -> admission.submit(2L, 11L));
+
+        assertEquals(Duration.ofSeconds(2), rejected.getRetryAfter());
+        assertEquals(1.0, meterRegistry.get("enrollment.admission.rejected").tag("reason", "per_student")
+                .counter().count());
+    }
+
+    /**
+     * Verifies that requests beyond the queue capacity are rejected.
+     */
+    @Test
+    @DisplayName("Full queue rejects new requests")
+    void submit_queueFull() throws Exception {
+        admission.submit(1L, 10L);
+        assertTrue(workerBusy.await(5, TimeUnit.SECONDS));
+        admission.submit(2L, 10L);
+        admission.submit(3L, 10L);
+        admission.submit(4L, 10L);
+
+        assertThrows(AdmissionRejectedException.class, () -> admission.submit(5L, 10L));
+        assertEquals(3, admission.getQueueDepth());
+        assertEquals(1.0, meterRegistry.get("enrollment.admission.rejected").tag("reason", "queue_full")
+                .counter().count());
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.student_teacher.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for SearchIndexes.
+ * Tests tokenization and the sorted posting list operations shared by the search indexes.
+ */
+class SearchIndexesTest {
+
+    /**
+     * Verifies that text is lowercased, split on punctuation and stripped of accents,
+     * whatever the default locale.
+     */
+    @Test
+    @DisplayName("Tokens are lowercase words without accents")
+    void tokenize() {
+        assertArrayEquals(new String[] {"economie", "generale", "101"},
+                SearchIndexes.tokenize("Économie-Générale (101)"));
+        assertEquals(0, SearchIndexes.tokenize("  --  ").length);
+
+        Locale defaultLocale = Locale.getDefault();
+        Locale.setDefault(Locale.forLanguageTag("tr"));
+        try {
+            // Turkish lowercases I to a dotless ı
+            assertArrayEquals(new String[] {"intro", "to", "linux"}, SearchIndexes.tokenize("INTRO TO LINUX"));
+        } finally {
+            Locale.setDefault(defaultLocale);
+        }
+    }
+
+    /**
+     * Verifies that inserts and deletes keep the list sorted without touching the
+     * original array, and that deleting the last value drops the list.
+     */
+    @Test
+    @DisplayName("Posting lists are updated by copy and stay sorted")
+    void insertAndDelete() {
+        long[] list = {2, 5, 9};
+
+        long[] inserted = SearchIndexes.insert(list, 7);
+        assertArrayEquals(new long[] {2, 5, 7, 9}, inserted);
+        assertArrayEquals(new long[] {2, 5, 9}, list);
+        assertSame(inserted, SearchIndexes.insert(inserted, 5));
+
+        assertArrayEquals(new long[] {2, 9}, SearchIndexes.delete(list, 5));
+        assertSame(list, SearchIndexes.delete(list, 4));
+        assertNull(SearchIndexes.delete(new long[] {3}, 3));
+    }
+
+    /**
+     * Verifies that seek finds the first value not below the key from any start,
+     * including keys past the end of the list.
+     */
+    @Test
+    @DisplayName("Seek finds the first value not below the key")
+    void seek() {
+        long[] list = {1, 3, 5, 7, 9, 11, 13, 15, 17};
+
+        assertEquals(0, SearchIndexes.seek(list, 0, 0));
+        assertEquals(2, SearchIndexes.seek(list, 0, 5));
+        assertEquals(3, SearchIndexes.seek(list, 1, 6));
+        assertEquals(8, SearchIndexes.seek(list, 4, 17));
+        assertEquals(list.length, SearchIndexes.seek(list, 2, 100));
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.student_teacher.service;
+
+import com.example.student_teacher.dto.StudentSummary;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for StudentSearchIndex.
+ * Tests prefix and fuzzy matching, ranking, course filtering and incremental updates.
+ */
+class StudentSearchIndexTest {
+
+    private StudentSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = StudentSearchIndex.of(List.of(
+                new StudentSummary(1L, "John Doe", "john.doe@student.edu"),
+                new StudentSummary(2L, "Johnny Walker", "jwalker@student.edu"),
+                new StudentSummary(3L, "Jane Roe", "jane.roe@student.edu"),
+                new StudentSummary(4L, "Jon Snow", "jon.snow@north.edu"),
+                new StudentSummary(5L, "Alexandra Smith", "asmith@student.edu")));
+    }
+
+    /**
+     * Verifies that an exact word ranks before a prefix and a prefix before a typo,
+     * then lower ids first. Short words are not matched with typos.
+     */
+    @Test
+    @DisplayName("Exact words rank before prefixes and typos")
+    void ranking() {
+        assertArrayEquals(new long[] {1, 2, 4}, index.search("john", null, 10));
+        assertArrayEquals(new long[] {1, 2, 4}, index.search("jo", null, 10));
+        assertArrayEquals(new long[] {1, 2}, index.search("joh", null, 10));
+    }
+
+    /**
+     * Verifies that a swapped or missing letter still matches, two edits only for long words.
+     */
+    @Test
+    @DisplayName("Typos within the edit distance still match")
+    void fuzzy() {
+        assertArrayEquals(new long[] {1, 4}, index.search("jhon", null, 10));
+        assertArrayEquals(new long[] {5}, index.search("alexnadar", null, 10));
+        assertEquals(0, index.search("jhn", null, 10).length);
+        assertTrue(StudentSearchIndex.withinDistance("walker", "walkre", 1));
+        assertFalse(StudentSearchIndex.withinDistance("walker", "talkre", 1));
+    }
+
+    /**
+     * Verifies that every query word must match, in the name or the email.
+     */
+    @Test
+    @DisplayName("All query words must match name or email")
+    void allWordsMustMatch() {
+        assertArrayEquals(new long[] {4}, index.search("jon north", null, 10));
+        assertArrayEquals(new long[] {3}, index.search("Jane.Roe@", null, 10));
+        assertEquals(0, index.search("johnny north", null, 10).length);
+        assertEquals(0, index.search("  ", null, 10).length);
+    }
+
+    /**
+     * Verifies that results are limited to the given ids, and a blank query lists them.
+     */
+    @Test
+    @DisplayName("Course filter limits results to enrolled students")
+    void within() {
+        long[] enrolled = {2, 3, 5};
+        assertArrayEquals(new long[] {2}, index.search("jo", enrolled, 10));
+        assertArrayEquals(new long[] {2, 3}, index.search("", enrolled, 2));
+    }
+
+    /**
+     * Verifies that added, renamed and removed students are reflected right away.
+     */
+    @Test
+    @DisplayName("Adds, renames and removals update the index")
+    void incrementalUpdates() {
+        index.add(new StudentSummary(6L, "Ada Lovelace", "ada@student.edu"));
+        assertArrayEquals(new long[] {6}, index.search("lovel", null, 10));
+
+        index.add(new StudentSummary(6L, "Ada Byron", "ada@student.edu"));
+        assertEquals(0, index.search("lovel", null, 10).length);
+
+        index.remove(1L);
+        assertArrayEquals(new long[] {2, 4}, index.search("john", null, 10));
+        assertEquals(5, index.size());
+        assertEquals(List.of(2L, 3L, 5L, 6L), Arrays.stream(index.search("student", null, 10)).boxed().toList());
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.student_teacher.web;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import jakarta.servlet.FilterChain;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ConcurrencyGuardFilter.
+ * Tests that requests run within the permit limit and are turned away once it is reached.
+ */
+class ConcurrencyGuardFilterTest {
+
+    /**
+     * Verifies that a request with a free permit runs and returns its permit.
+     */
+    @Test
+    @DisplayName("Request within the limit passes through")
+    void doFilter_permitAvailable() throws Exception {
+        ConcurrencyGuardFilter guard = new ConcurrencyGuardFilter(1, Duration.ofMillis(10));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        guard.doFilter(new MockHttpServletRequest("POST", "/student/courses/1"), response, chain);
+
+        assertNotNull(chain.getRequest());
+        assertEquals(200, response.getStatus());
+        assertEquals(1, guard.getAvailablePermits());
+    }
+
+    /**
+     * Verifies that a request arriving while all permits are held gets 503 with Retry-After.
+     */
+    @Test
+    @DisplayName("Request over the limit is rejected with 503")
+    void doFilter_limitReached() throws Exception {
+        ConcurrencyGuardFilter guard = new ConcurrencyGuardFilter(1, Duration.ofMillis(10));
+        MockHttpServletResponse rejected = new MockHttpServletResponse();
+        MockFilterChain innerChain = new MockFilterChain();
+        // The first request still holds the only permit when the second one arrives
+        FilterChain holdingChain = (request, response) -> guard.doFilter(
+                new MockHttpServletRequest("POST", "/student/courses/2"), rejected, innerChain);
+
+        guard.doFilter(new MockHttpServletRequest("POST", "/student/courses/1"),
+                new MockHttpServletResponse(), holdingChain);
+
+        assertEquals(503, rejected.getStatus());
+        assertEquals("1", rejected.getHeader("Retry-After"));
+        assertNull(innerChain.getRequest());
+        assertEquals(1, guard.getAvailablePermits());
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.student_teacher.web;
+
+import com.example.student_teacher.metrics.StatementCounter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import jakarta.servlet.FilterChain;
+
+import java.time.Duration;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for RequestStatementsFilter.
+ * Tests that statements are counted per handler and that budget violations are reported.
+ */
+class RequestStatementsFilterTest {
+
+    static class SampleController {
+        public String page() {
+            return "page";
+        }
+    }
+
+    private final StatementCounter inspector = new StatementCounter();
+    private SimpleMeterRegistry meterRegistry;
+    private MockHttpServletRequest request;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        meterRegistry = new SimpleMeterRegistry();
+        request = new MockHttpServletRequest("GET", "/sample");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE,
+                new HandlerMethod(new SampleController(), SampleController.class.getMethod("page")));
+    }
+
+    private FilterChain running(String... statements) {
+        return (req, res) -> {
+            for (String sql : statements) {
+                inspector.inspect(sql);
+            }
+        };
+    }
+
+    /**
+     * Verifies that a request within its budgets is counted under its handler and not flagged.
+     */
+    @Test
+    @DisplayName("Request within budget is counted only")
+    void doFilter_withinBudget() throws Exception {
+        RequestStatementsFilter filter = new RequestStatementsFilter(meterRegistry, 3, Duration.ofSeconds(5), 3, Set.of());
+
+        filter.doFilter(request, new MockHttpServletResponse(), running("select a", "select b"));
+
+        assertEquals(2.0, meterRegistry.get("http.server.requests.statements")
+                .tag("handler", "SampleController#page").summary().totalAmount());
+        assertNull(meterRegistry.find("http.server.requests.over.budget").counter());
+    }
+
+    /**
+     * Verifies that a request over the statement budget that repeats one statement is flagged for both.
+     */
+    @Test
+    @DisplayName("Statement budget and repeated statements are flagged")
+    void doFilter_overBudget() throws Exception {
+        RequestStatementsFilter filter = new RequestStatementsFilter(meterRegistry, 3, Duration.ofSeconds(5), 3, Set.of());
+
+        filter.doFilter(request, new MockHttpServletResponse(),
+                running("select s", "select c where id=?", "select c where id=?", "select c where id=?"));
+
+        assertEquals(1.0, meterRegistry.get("http.server.requests.over.budget")
+                .tags("handler", "SampleController#page", "reason", "statements").counter().count());
+        assertEquals(1.0, meterRegistry.get("http.server.requests.over.budget")
+                .tags("handler", "SampleController#page", "reason", "repeated").counter().count());
+    }
+
+    /**
+     * Verifies that ignored handlers are still counted but never flagged.
+     */
+    @Test
+    @DisplayName("Ignored handler is not flagged")
+    void doFilter_ignoredHandler() throws Exception {
+        RequestStatementsFilter filter = new RequestStatementsFilter(meterRegistry, 1, Duration.ofSeconds(5), 0,
+                Set.of("SampleController#page"));
+
+        filter.doFilter(request, new MockHttpServletResponse(), running("insert a", "insert b"));
+
+        assertEquals(1, meterRegistry.get("http.server.requests.statements").summary().count());
+        assertNull(meterRegistry.find("http.server.requests.over.budget").counter());
+    }
+}